@@ -0,0 +1,42 @@
+package network_game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// 카드 문자열 / 바이트 해석 (텍스트 PLAY 한 줄마다 1번)
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBench {
+
+    private final String[] names = new String[Card.COUNT];
+    private final byte[][] bytes = new byte[Card.COUNT][];
+    private int i;
+
+    @Setup
+    public void setup() {
+        for (int c = 0; c < Card.COUNT; c++) {
+            // 캐시된 이름 대신 새 문자열 (소켓에서 읽은 줄과 같은 조건)
+            names[c] = new String(Card.nameOf(c).toCharArray());
+            bytes[c] = names[c].getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    @Benchmark
+    public Card fromString() {
+        i = (i + 1) % Card.COUNT;
+        return Card.fromString(names[i]);
+    }
+
+    @Benchmark
+    public Card parse() {
+        i = (i + 1) % Card.COUNT;
+        byte[] b = bytes[i];
+        return Card.parse(b, 0, b.length);
+    }
+}
@@ -0,0 +1,118 @@
+package network_game;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// GameState: 배분 / 카드 내기 / 손패 문자열
+//
+// playCard 는 상태가 바뀌므로, 고정 seed 게임에서 미리 뽑아 둔 PLAYS 수를 그대로 다시 낸다 (1 op = 카드 1장).
+// 다시 배분하는 reset 은 Dealt 의 Level.Invocation setup 에서 하므로 측정에 들어가지 않는다 (reset 비용은 reset 벤치).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBench {
+
+    static final int PLAYS = 64;
+
+    private GameState game;
+    private long seed;
+
+    private int seat;
+
+    @Setup
+    public void setup() {
+        game = new GameState(1);
+    }
+
+    // playCard 용: 호출마다 같은 seed 로 새로 배분된 게임과 그 게임에서 낼 PLAYS 수
+    // (호출 1번 = 카드 64장이라 Level.Invocation 의 시각 측정 비용은 1장당 1ns 아래로 나뉜다)
+    @State(Scope.Thread)
+    public static class Dealt {
+
+        GameState game;
+        long replaySeed;
+        final int[] moveSeat = new int[PLAYS];
+        final int[] moveCard = new int[PLAYS];
+        final int[] moveSide = new int[PLAYS];
+
+        @Setup(Level.Trial)
+        public void record() {
+            // 막힘 / 승리 없이 PLAYS 수 이상 이어지는 게임을 찾아 수를 기록
+            for (long s = 1; ; s++) {
+                if (record(s)) {
+                    replaySeed = s;
+                    break;
+                }
+            }
+            game = new GameState(replaySeed);
+        }
+
+        @Setup(Level.Invocation)
+        public void deal() {
+            game.reset(replaySeed);
+        }
+
+        // 좌석을 돌며 가장 낮은 카드부터 (L 우선)
+        private boolean record(long s) {
+            GameState g = new GameState(s);
+            List<int[]> moves = new ArrayList<>();
+            int p = 0;
+            int passes = 0;
+            while (moves.size() < PLAYS) {
+                long l = g.getPlayableMask(p, GameState.L);
+                long r = g.getPlayableMask(p, GameState.R);
+                if ((l | r) != 0) {
+                    int side = (l != 0) ? GameState.L : GameState.R;
+                    int card = Long.numberOfTrailingZeros(l != 0 ? l : r);
+                    g.playCard(p, card, side);
+                    moves.add(new int[]{p, card, side});
+                    passes = 0;
+                    if (g.isFinished()) return false;
+                } else if (++passes == g.getPlayers()) {
+                    return false;
+                }
+                p = (p + 1) % g.getPlayers();
+            }
+            for (int i = 0; i < PLAYS; i++) {
+                moveSeat[i] = moves.get(i)[0];
+                moveCard[i] = moves.get(i)[1];
+                moveSide[i] = moves.get(i)[2];
+            }
+            return true;
+        }
+    }
+
+    // 새 객체 + 섞기 + 배분
+    @Benchmark
+    public GameState construct() {
+        return new GameState(GameState.DEFAULT_TEAMS, seed++);
+    }
+
+    // 같은 객체에 다시 섞기 + 배분 (시뮬레이터 방식)
+    @Benchmark
+    public GameState reset() {
+        game.reset(seed++);
+        return game;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PLAYS)
+    public void playCard(Dealt d, Blackhole bh) {
+        GameState g = d.game;
+        for (int i = 0; i < PLAYS; i++)
+            bh.consume(g.playCard(d.moveSeat[i], d.moveCard[i], d.moveSide[i]));
+    }
+
+    @Benchmark
+    public String getHandString() {
+        seat = (seat + 1) & 3;
+        return game.getHandString(seat);
+    }
+}
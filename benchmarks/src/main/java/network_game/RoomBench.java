@@ -0,0 +1,85 @@
+package network_game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 방 안 메시지 만들기 / 브로드캐스트
+// 실제 ClientHandler 4명을 메모리 연결(Sink)로 방에 넣어 게임을 시작시킨 뒤 잰다.
+// 두 명은 텍스트, 두 명은 바이너리라 브로드캐스트 1번에 두 형식이 모두 인코딩된다.
+// Sink 는 인코딩된 바이트 길이만 더한다 (소켓 / 송신 대기열 비용은 빠짐).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomBench {
+
+    private static final AtomicInteger ids = new AtomicInteger();
+
+    static final class Sink implements Connection {
+        volatile boolean binary;
+        volatile boolean started;
+        long bytes;
+
+        @Override
+        public void send(Frame frame) {
+            bytes += frame.encode(binary).length;
+            if (frame.text.equals("GAME_START")) started = true;
+        }
+
+        @Override
+        public void setBinary() {
+            binary = true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private final Sink[] sinks = new Sink[GameState.SEATS];
+    private final RoomServer.ClientHandler[] users = new RoomServer.ClientHandler[GameState.SEATS];
+    private RoomServer.RoomInfo room;
+    private int viewer;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        String roomName = "bench-" + ids.incrementAndGet();
+        for (int i = 0; i < users.length; i++) {
+            sinks[i] = new Sink();
+            users[i] = new RoomServer.ClientHandler(sinks[i]);
+            users[i].onOpen();
+            users[i].onLine(roomName + "-" + i + "|NONE" + (i % 2 == 1 ? "|" + Wire.BIN_TOKEN : ""));
+        }
+
+        users[0].onLine("CREATE " + roomName);
+        for (int i = 1; i < users.length; i++)
+            users[i].onLine("ENTER_ROOM " + roomName);
+
+        // 입장 / 시작은 방 mailbox 에서 비동기로 처리된다
+        long deadline = System.currentTimeMillis() + 5_000;
+        for (Sink s : sinks)
+            while (!s.started) {
+                if (System.currentTimeMillis() > deadline)
+                    throw new IllegalStateException("game did not start");
+                Thread.sleep(10);
+            }
+        room = RoomServer.rooms.get(roomName);
+    }
+
+    // COUNTS 한 명분 (좌석 순회)
+    @Benchmark
+    public Frame makeCountsMessageFor() {
+        viewer = (viewer + 1) & 3;
+        return RoomServer.ClientHandler.makeCountsMessageFor(users[viewer]);
+    }
+
+    // 채팅 한 줄을 방 전체에 (Frame 생성 + 형식별 인코딩 1번씩 + 4명에게 전달)
+    @Benchmark
+    public void broadcastText() {
+        RoomServer.ClientHandler.broadcast(room, Frame.text("CHAT ALL p0 A NONE 좋은 게임이었어요"));
+    }
+}
@@ -0,0 +1,57 @@
+package network_game;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 채팅 금칙어 검사 / 가리기 (예전 ClientHandler.containsBadWord / filterBadWords 자리)
+// 사전 = 서버와 같은 badwords.txt, 메시지 = 금칙어 없음 / 있음 두 가지
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WordFilterBench {
+
+    @Param({"clean", "dirty"})
+    public String message;
+
+    private WordFilter filter;
+    private String msg;
+
+    @Setup
+    public void setup() throws IOException {
+        List<String> words = new ArrayList<>();
+        try (InputStream in = WordFilterBench.class.getClassLoader().getResourceAsStream("badwords.txt");
+             BufferedReader br = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null)
+                if (!line.isBlank())
+                    words.add(line);
+        }
+        filter = WordFilter.compile(words);
+
+        String base = "좋은 게임이었어요 다음 판도 같이 해요 ";
+        msg = message.equals("clean")
+                ? base + base
+                : base + words.get(words.size() / 2) + " " + base;
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return filter.matches(msg);
+    }
+
+    @Benchmark
+    public String mask() {
+        return filter.mask(msg);
+    }
+}
@@ -1,65 +1,126 @@
 package network_game;
 
-import java.util.Objects;
-
-public class Card {
+// 카드 값 (불변)
+// 52가지 값을 미리 만들어 두고 항상 같은 객체를 돌려준다 (2덱이어도 같은 값 = 같은 객체).
+// 시작 후에는 카드 객체를 새로 만들지 않는다.
+// 앞/뒷면 같은 화면 상태는 카드가 아니라 그리는 쪽(FlyingCard 등)이 가진다.
+public final class Card {
 
     public final int number;   // 1~13
     public final char suit;    // 'C','D','H','S'
 
-    // ===== 추가: 카드 공개 여부 =====
-    private boolean faceUp = false;
+    // ===== 1바이트 표현 (바이너리 프로토콜) =====
+    // ordinal = (number - 1) * 4 + suit 순서 (C, D, H, S) → 0~51
+    public static final int COUNT = 52;
+    private static final String SUITS = "CDHS";
+
+    private static final Card[] ALL = new Card[COUNT];
+    private static final String[] NAMES = new String[COUNT];
+
+    // ADJ[c] = c 위에 낼 수 있는 카드들의 비트 (bit = ordinal, 숫자 ±1, A-K 순환, 무늬 무관)
+    private static final long[] ADJ = new long[COUNT];
+
+    static {
+        for (int i = 0; i < COUNT; i++) {
+            ALL[i] = new Card(i / 4 + 1, SUITS.charAt(i % 4), i);
+            NAMES[i] = ALL[i].toString();
+
+            int n = i / 4;                    // 0~12
+            int up = (n + 1) % 13;
+            int down = (n + 12) % 13;
+            ADJ[i] = (0xFL << (up * 4)) | (0xFL << (down * 4));
+        }
+    }
+
+    private final int ordinal;
+
+    private Card(int number, char suit, int ordinal) {
+        this.number = number;
+        this.suit = suit;
+        this.ordinal = ordinal;
+    }
 
-    public Card(int number, char suit) {
+    public static Card of(int number, char suit) {
         if (number < 1 || number > 13)
             throw new IllegalArgumentException("Invalid card number: " + number);
 
-        if ("CDHS".indexOf(suit) == -1)
+        int s = SUITS.indexOf(suit);
+        if (s == -1)
             throw new IllegalArgumentException("Invalid card suit: " + suit);
 
-        this.number = number;
-        this.suit = suit;
+        return ALL[(number - 1) * 4 + s];
     }
 
     // ===== 문자열 → 카드 =====
-    // 예: "11C"
-    public static Card fromString(String s) {
-        // 예: "1D", "13S"
+    // 예: "1D", "13S"  (substring / parseInt 없이)
+    public static Card fromString(CharSequence s) {
         int len = s.length();
-        int number = Integer.parseInt(s.substring(0, len - 1));
-        char suit = s.charAt(len - 1);
-        return new Card(number, suit);
+        if (len < 2 || len > 3)
+            throw new IllegalArgumentException("Invalid card: " + s);
+
+        int number = 0;
+        for (int i = 0; i < len - 1; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9')
+                throw new IllegalArgumentException("Invalid card: " + s);
+            number = number * 10 + (c - '0');
+        }
+        return of(number, s.charAt(len - 1));
+    }
+
+    // ===== 바이트 → 카드 ===== (ASCII "11C" 가 buf[off..off+len) 에 있을 때)
+    public static Card parse(byte[] buf, int off, int len) {
+        if (len < 2 || len > 3)
+            throw new IllegalArgumentException("Invalid card length: " + len);
+
+        int number = 0;
+        for (int i = off; i < off + len - 1; i++) {
+            int c = buf[i];
+            if (c < '0' || c > '9')
+                throw new IllegalArgumentException("Invalid card digit: " + (char) c);
+            number = number * 10 + (c - '0');
+        }
+        return of(number, (char) buf[off + len - 1]);
+    }
+
+    public int ordinal() {
+        return ordinal;
+    }
+
+    public static Card fromOrdinal(int ordinal) {
+        return ALL[ordinal];
     }
 
-    // ===== 카드 공개 상태 =====
-    public boolean isFaceUp() {
-        return faceUp;
+    // ===== 놓기 규칙 (표 조회) =====
+    public static long adjacent(int ordinal) {
+        return ADJ[ordinal];
     }
 
-    public void flipUp() {
-        faceUp = true;
+    // top 위에 next 를 놓을 수 있는지
+    public static boolean canPlace(int top, int next) {
+        return (ADJ[top] & (1L << next)) != 0;
     }
 
-    public void flipDown() {
-        faceUp = false;
+    // 예: 41 → "11H"  (이미지 파일명과 같은 문자열, 새로 만들지 않음)
+    public static String nameOf(int ordinal) {
+        return NAMES[ordinal];
     }
 
-    // ===== 값 비교 (문제 5 핵심) =====
+    // ===== 값 비교 ===== (같은 값은 같은 객체지만 equals 도 값으로 맞춰 둔다)
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Card)) return false;
-        Card c = (Card) o;
-        return number == c.number && suit == c.suit;
+        return ordinal == ((Card) o).ordinal;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(number, suit);
+        return ordinal;
     }
 
     @Override
     public String toString() {
-        return number + String.valueOf(suit);
+        return NAMES[ordinal] != null ? NAMES[ordinal] : number + String.valueOf(suit);
     }
 }
@@ -0,0 +1,17 @@
+package network_game;
+
+// 서버 쪽 클라이언트 연결 추상화
+// ClientHandler 는 프로토콜 처리만 하고, 실제 소켓 입출력은 구현체가 담당한다.
+//  - SocketConnection : 연결당 스레드 1개 (blocking)
+//  - NioServer.NioConnection : Selector 기반 I/O 루프
+interface Connection {
+
+    // 메시지 전송 (협상된 형식으로 인코딩)
+    void send(Frame frame);
+
+    // 바이너리 프로토콜로 전환 (이후 송신/수신 모두)
+    // 핸드셰이크 처리 중 수신 스레드에서만 호출한다.
+    void setBinary();
+
+    void close();
+}
@@ -0,0 +1,146 @@
+package network_game;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// 연결 수 벤치마크
+// 서버 엔진별로 로비 대기 연결 N개를 붙였을 때의 비용을 비교한다.
+//
+//   java network_game.ConnectionBench 5000            → thread / virtual / nio 각각 별도 JVM 으로 측정
+//   java network_game.ConnectionBench 5000 virtual    → 한 엔진만 측정
+//
+// 클라이언트 쪽은 스레드를 만들지 않으므로 스레드 수 / 힙 증가분은 서버 몫이다.
+public class ConnectionBench {
+
+    private static final String[] ENGINES = {"thread", "virtual", "nio"};
+    private static final int RTT_SAMPLES = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int count = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+
+        if (args.length > 1) {
+            runOne(args[1], count);
+            return;
+        }
+
+        // 엔진마다 새 JVM (서버의 static 상태와 스레드가 섞이지 않게)
+        String java = System.getProperty("java.home") + "/bin/java";
+        String cp = System.getProperty("java.class.path");
+        for (String engine : ENGINES) {
+            Process p = new ProcessBuilder(java, "-cp", cp,
+                    ConnectionBench.class.getName(), String.valueOf(count), engine)
+                    .inheritIO()
+                    .start();
+            p.waitFor();
+        }
+    }
+
+    private static void runOne(String engine, int count) throws Exception {
+        int port = freePort();
+
+        Thread server = new Thread(() -> {
+            try {
+                RoomServer.serve(engine, port);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, "bench-server");
+        server.setDaemon(true);
+        server.start();
+        waitForServer(port);
+
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        long heapBefore = usedHeap();
+
+        // ===== 연결 + 핸드셰이크 =====
+        List<SocketChannel> conns = new ArrayList<>(count);
+        ByteBuffer buf = ByteBuffer.allocate(256);
+
+        long t0 = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            SocketChannel ch = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+            conns.add(ch);
+
+            readLine(ch, buf); // ENTER_NAME
+            write(ch, "bench" + i + "|NONE");
+        }
+        long connectNs = System.nanoTime() - t0;
+
+        // ===== 왕복 지연 (GET_ROOMS → ROOM_END) =====
+        int samples = Math.min(RTT_SAMPLES, count);
+        long rttTotal = 0;
+        for (int i = 0; i < samples; i++) {
+            SocketChannel ch = conns.get(i * (count / samples));
+            long s = System.nanoTime();
+            write(ch, "GET_ROOMS");
+            while (!readLine(ch, buf).equals("ROOM_END")) { }
+            rttTotal += System.nanoTime() - s;
+        }
+
+        Thread.sleep(500);
+        int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+        long heapAfter = usedHeap();
+
+        System.out.printf(
+                "%-8s conns=%d  connect=%dms (%.0f conn/s)  threads=+%d  heap=+%.1fMB  rtt=%.1fus%n",
+                engine, count,
+                connectNs / 1_000_000,
+                count / (connectNs / 1e9),
+                threadsAfter - threadsBefore,
+                (heapAfter - heapBefore) / (1024.0 * 1024.0),
+                rttTotal / 1e3 / samples);
+
+        for (SocketChannel ch : conns) ch.close();
+    }
+
+    // ===== 유틸 =====
+    private static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+
+    private static void waitForServer(int port) throws InterruptedException {
+        while (true) {
+            try {
+                SocketChannel.open(new InetSocketAddress("127.0.0.1", port)).close();
+                return;
+            } catch (IOException e) {
+                Thread.sleep(50);
+            }
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        System.gc();
+        Thread.sleep(100);
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static void write(SocketChannel ch, String line) throws IOException {
+        ByteBuffer b = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (b.hasRemaining()) ch.write(b);
+    }
+
+    // 한 바이트씩 읽는다 (측정용이라 단순하게)
+    private static String readLine(SocketChannel ch, ByteBuffer buf) throws IOException {
+        buf.clear();
+        ByteBuffer one = ByteBuffer.allocate(1);
+        while (true) {
+            one.clear();
+            if (ch.read(one) < 0) throw new IOException("closed");
+            byte b = one.get(0);
+            if (b == '\n') break;
+            if (buf.hasRemaining()) buf.put(b);
+        }
+        return new String(buf.array(), 0, buf.position(), StandardCharsets.UTF_8);
+    }
+}
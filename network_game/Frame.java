@@ -0,0 +1,177 @@
+package network_game;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+// 서버 → 클라이언트 메시지 1개
+// 텍스트 줄과 바이너리 프레임 두 가지 표현을 갖고, 각 연결이 협상된 쪽을 골라 보낸다.
+// 인코딩 결과는 캐시되므로 방 전체 브로드캐스트에서도 한 번만 만든다.
+final class Frame {
+
+    final String text;
+
+    // 송신 대기열이 넘쳤을 때 버려도 되는 메시지인지 (-Droomserver.outPolicy=drop)
+    // 채팅과 로비 변경분만 — 로비는 버전이 건너뛰면 클라이언트가 SUBSCRIBE_ROOMS 로 다시 받는다.
+    // 게임 메시지 (STATE / HAND / GAME_START / GAME_OVER ...) 는 하나만 빠져도 되돌릴 길이 없다.
+    final boolean droppable;
+
+    private final int op;
+    private final byte[] payload;
+
+    private byte[] textBytes;
+    private byte[] binBytes;
+
+    private Frame(String text, int op, byte[] payload) {
+        this.text = text;
+        this.op = op;
+        this.payload = payload;
+        this.droppable = op == Wire.OP_TEXT
+                && (text.startsWith("CHAT ") || text.startsWith("ROOM_ADDED ")
+                    || text.startsWith("ROOM_UPDATED ") || text.startsWith("ROOM_REMOVED "));
+    }
+
+    private Frame(String text, byte[] textBytes, byte[] binBytes) {
+        this(text, Wire.OP_TEXT, null);
+        this.textBytes = textBytes;
+        this.binBytes = binBytes;
+    }
+
+    // ===== 생성 =====
+    static Frame text(String line) {
+        return new Frame(line, Wire.OP_TEXT, null);
+    }
+
+    // 여러 줄을 미리 인코딩해서 한 번에 쓰는 Frame (방 목록 등)
+    static Frame lines(List<String> lines) {
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        ByteArrayOutputStream bin = new ByteArrayOutputStream();
+        for (String l : lines) {
+            text.writeBytes(Wire.textLine(l));
+            bin.writeBytes(Wire.textFrame(l));
+        }
+        return new Frame(String.join("\n", lines), text.toByteArray(), bin.toByteArray());
+    }
+
+    static Frame center(String side, Card card) {
+        return new Frame(
+                "CENTER " + side + " " + (card == null ? "NONE" : card),
+                Wire.OP_CENTER,
+                new byte[] {
+                        (byte) Wire.side(side),
+                        (byte) (card == null ? Wire.NO_CARD : card.ordinal())
+                });
+    }
+
+    // HAND name 1C,5D,...
+    static Frame hand(String name, int seat, String handText, byte[] cards) {
+        byte[] p = new byte[2 + cards.length];
+        p[0] = (byte) seat;
+        p[1] = (byte) cards.length;
+        System.arraycopy(cards, 0, p, 2, cards.length);
+        return new Frame("HAND " + name + " " + handText, Wire.OP_HAND, p);
+    }
+
+    static Frame counts(int teammate, int enemyL, int enemyR, int sideL, int sideR) {
+        return new Frame(
+                "COUNTS " + teammate + " " + enemyL + " " + enemyR + " " + sideL + " " + sideR,
+                Wire.OP_COUNTS,
+                new byte[] {(byte) teammate, (byte) enemyL, (byte) enemyR, (byte) sideL, (byte) sideR});
+    }
+
+    static Frame gameStart(int seat) {
+        return new Frame("GAME_START", Wire.OP_GAME_START, new byte[] {(byte) seat});
+    }
+
+    // result = "A" / "B" / "DRAW"
+    // 시간 초과: GAME_OVER TEAM_A | GAME_OVER DRAW, 승리: GAME_OVER A
+    static Frame gameOver(String result, boolean timeOver) {
+        String text;
+        if (!timeOver) text = "GAME_OVER " + result;
+        else if (result.equals("DRAW")) text = "GAME_OVER DRAW";
+        else text = "GAME_OVER TEAM_" + result;
+
+        return new Frame(text, Wire.OP_GAME_OVER,
+                new byte[] {(byte) result.charAt(0), (byte) (timeOver ? 1 : 0)});
+    }
+
+    // 카드 1장 낸 결과를 한 번에 (좌석마다 1개)
+    // STATE L 11C 4 5 5 3 2 -                  다른 사람
+    // STATE L 11C 4 5 5 3 2 - D:3:11C:5D       낸 사람, 손패 변화만 (seq 3, 11C 빠짐, 5D 보충 / 없으면 -)
+    // STATE L 11C 4 5 5 3 2 - H:8:1C,5D        낸 사람, 주기적 전체 재동기화 (비었으면 "H:8:")
+    // winner 는 게임이 끝났으면 A / B, 아니면 -
+    static Frame state(String side, Card card, int[] counts, HandUpdate hand, String winner) {
+        StringBuilder sb = new StringBuilder(48);
+        sb.append("STATE ").append(side).append(' ').append(card);
+        for (int c : counts) sb.append(' ').append(c);
+        sb.append(' ').append(winner == null ? "-" : winner);
+
+        byte[] h;
+        if (hand == null) {
+            h = new byte[] {(byte) Wire.NO_HAND};
+        } else if (hand.fullCards != null) {
+            sb.append(" H:").append(hand.seq).append(':').append(hand.fullText);
+            int n = hand.fullCards.length;
+            h = new byte[3 + n];
+            h[0] = Wire.HAND_FULL;
+            h[1] = (byte) hand.seq;
+            h[2] = (byte) n;
+            System.arraycopy(hand.fullCards, 0, h, 3, n);
+        } else {
+            sb.append(" D:").append(hand.seq).append(':').append(hand.removed)
+                    .append(':').append(hand.drawn == null ? "-" : hand.drawn);
+            h = new byte[] {
+                    Wire.HAND_DELTA,
+                    (byte) hand.seq,
+                    (byte) hand.removed.ordinal(),
+                    (byte) (hand.drawn == null ? Wire.NO_CARD : hand.drawn.ordinal())
+            };
+        }
+
+        byte[] p = new byte[8 + h.length];
+        p[0] = (byte) Wire.side(side);
+        p[1] = (byte) card.ordinal();
+        for (int i = 0; i < 5; i++) p[2 + i] = (byte) counts[i];
+        p[7] = (byte) (winner == null ? 0 : winner.charAt(0));
+        System.arraycopy(h, 0, p, 8, h.length);
+
+        return new Frame(sb.toString(), Wire.OP_STATE, p);
+    }
+
+    // STATE 에 실리는 낸 사람의 손패 변화
+    // seq 는 0~255 순환. 클라이언트는 seq 가 건너뛰면 다음 전체 재동기화까지 delta 를 무시한다.
+    static final class HandUpdate {
+        final int seq;
+        final String fullText;
+        final byte[] fullCards;
+        final Card removed;
+        final Card drawn;
+
+        private HandUpdate(int seq, String fullText, byte[] fullCards, Card removed, Card drawn) {
+            this.seq = seq;
+            this.fullText = fullText;
+            this.fullCards = fullCards;
+            this.removed = removed;
+            this.drawn = drawn;
+        }
+
+        static HandUpdate full(int seq, String text, byte[] cards) {
+            return new HandUpdate(seq, text, cards, null, null);
+        }
+
+        static HandUpdate delta(int seq, Card removed, Card drawn) {
+            return new HandUpdate(seq, null, null, removed, drawn);
+        }
+    }
+
+    // ===== 인코딩 =====
+    byte[] encode(boolean binary) {
+        if (binary) {
+            if (binBytes == null)
+                binBytes = (op == Wire.OP_TEXT) ? Wire.textFrame(text) : Wire.frame(op, payload);
+            return binBytes;
+        }
+        if (textBytes == null)
+            textBytes = Wire.textLine(text);
+        return textBytes;
+    }
+}
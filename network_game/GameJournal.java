@@ -0,0 +1,464 @@
+package network_game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+// 게임 기록 (append-only journal)
+// 게임 시작(seed + 팀), 받아들인 PLAY, 보조 더미 뒤집기, 끝을 짧은 바이너리 레코드로 남긴다.
+// 서버가 죽었다 다시 뜨면 끝나지 않은 게임을 seed 로 다시 배분하고 기록된 수를 그대로 재생해 복구한다.
+//
+// 쓰기 경로
+//   handlePlay 등은 레코드(byte[])를 큐에 넣기만 한다 (잠금 / 디스크 I/O 없음).
+//   writer 스레드 1개가 모인 레코드를 한꺼번에 mmap 세그먼트에 복사하고 force() 한 번 (group commit).
+//
+// 파일: <dir>/00000001.seg, 00000002.seg ... (SEGMENT_SIZE 고정 크기, 0 으로 채워진 뒤쪽 = 빈 공간)
+// 레코드 = [len u16][crc32c u32][type u8][gameId i64][body...]   (len = type 부터 끝까지)
+//   START [시작 시각 i64][seed i64][인원 u8][팀 문자 x 인원][방 이름 길이 u16][방 이름 utf8][좌석 닉네임]
+//   PLAY  [seat u8][card u8][side u8]
+//   FLIP  [side u8]
+//   END   [결과 'A'|'B'|'D'|'X'(버려짐)]
+//   SNAPSHOT [시작 시각 i64][방 이름 길이 u16][방 이름 utf8][GameState.toBytes()][좌석 닉네임]
+//   좌석 닉네임 = [수 u8]([길이 u16][utf8]) x 수 — 재시작 뒤 그 닉네임으로 ENTER_ROOM 하면 같은 좌석에 다시 앉는다.
+//     레코드 끝에 붙으므로 이것이 없는 예전 레코드도 그대로 읽힌다 (그 게임은 아무도 못 돌아옴).
+//
+// 시작할 때: 기존 세그먼트를 읽어 복구 → 끝나지 않은 게임마다 SNAPSHOT 1개만 새 세그먼트에 쓰고
+// 옛 세그먼트 삭제 (체크포인트. 다음 복구는 그 시점부터 재생).
+// 도는 중에는 writer 가 게임마다 첫 레코드(START / SNAPSHOT)가 들어간 세그먼트를 기억하고,
+// 그보다 앞선 닫힌 세그먼트는 안의 게임이 모두 END 된 것이므로 묶음을 쓸 때마다 지운다.
+//
+//   -Droomserver.journal=journal     기록 폴더, 기본 = 작업 폴더의 ./journal ("off" 면 기록 안 함)
+//   -Droomserver.journalSegment=8388608
+final class GameJournal {
+
+    static final int SEGMENT_SIZE = Integer.getInteger("roomserver.journalSegment", 8 << 20);
+
+    private static final int HEADER = 2 + 4;
+    // 한 레코드의 최대 크기: len 이 u16 이고, 세그먼트 하나에 끝 표시(2바이트)와 함께 들어가야 한다
+    private static final int MAX_RECORD = Math.min(HEADER + 0xFFFF, SEGMENT_SIZE - 2);
+    private static final byte START = 1;
+    private static final byte PLAY = 2;
+    private static final byte FLIP = 3;
+    private static final byte END = 4;
+    private static final byte SNAPSHOT = 5;
+
+    // 기록하지 않는 journal (-Droomserver.journal=off)
+    static final GameJournal OFF = new GameJournal();
+
+    // ===== 지표 =====
+    final LongAdder records = new LongAdder();
+    final LongAdder batches = new LongAdder();
+
+    private final Path dir;
+    private final LinkedTransferQueue<byte[]> queue = new LinkedTransferQueue<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final List<Recovered> recovered = new ArrayList<>();
+
+    // writer 스레드 전용
+    private int segmentNo;
+    private int oldestSegment;   // 아직 지우지 않은 가장 앞 세그먼트 번호
+    private final Map<Long, Integer> liveFrom = new HashMap<>();   // 진행 중 게임 id → 첫 레코드가 든 세그먼트
+    private FileChannel channel;
+    private MappedByteBuffer buf;
+    private final CRC32C crc = new CRC32C();
+
+    private volatile boolean closed;
+    private Thread writer;
+
+    private GameJournal() {
+        this.dir = null;
+    }
+
+    private GameJournal(Path dir) {
+        this.dir = dir;
+    }
+
+    static GameJournal open(String path) throws IOException {
+        if ("off".equals(path)) return OFF;
+
+        GameJournal j = new GameJournal(Paths.get(path));
+        Files.createDirectories(j.dir);
+        List<Path> old = j.segments();
+        Map<Long, Replay> active = j.replay(old);
+
+        // 새 세그먼트에 진행 중인 게임의 스냅샷만 쓰고 옛 세그먼트는 삭제
+        j.segmentNo = old.isEmpty() ? 0 : segmentNumber(old.get(old.size() - 1));
+        j.roll();
+        j.oldestSegment = j.segmentNo;
+        for (Iterator<Replay> it = active.values().iterator(); it.hasNext(); ) {
+            Replay r = it.next();
+            byte[] rec = snapshotRecord(r.id, r.room, r.startMs, r.game, r.names);
+            if (rec.length > MAX_RECORD) {
+                System.out.println("[WARN] journal 스냅샷이 세그먼트보다 큼 — 복구하지 않음: " + r.room);
+                it.remove();
+                continue;
+            }
+            j.seal(rec);
+            j.write(rec);
+            j.track(rec);
+        }
+        j.buf.force();
+        for (Path p : old) Files.deleteIfExists(p);
+
+        for (Replay r : active.values())
+            j.recovered.add(new Recovered(r.id, r.room, r.startMs, r.seed, r.game, r.names));
+
+        j.writer = new Thread(j::writeLoop, "journal-writer");
+        j.writer.setDaemon(true);
+        j.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(j::close, "journal-close"));
+        return j;
+    }
+
+    // 시작 시 복구한 진행 중 게임
+    List<Recovered> recovered() {
+        return recovered;
+    }
+
+    boolean enabled() {
+        return this != OFF;
+    }
+
+    // ==========================
+    // 기록 (호출 스레드: 레코드 만들어 큐에 넣기만)
+    // ==========================
+    // names[seat] = 그 좌석 플레이어의 닉네임
+    long start(String room, long seed, String[] teams, String[] names) {
+        long id = nextId.getAndIncrement();
+        if (!enabled()) return id;
+
+        byte[] name = room.getBytes(StandardCharsets.UTF_8);
+        byte[][] seats = encodeNames(names);
+        ByteBuffer b = record(START, id, 8 + 8 + 1 + teams.length + 2 + name.length + namesSize(seats));
+        b.putLong(System.currentTimeMillis());
+        b.putLong(seed);
+        b.put((byte) teams.length);
+        for (String t : teams) b.put((byte) t.charAt(0));
+        b.putShort((short) name.length);
+        b.put(name);
+        putNames(b, seats);
+        offer(b);
+        return id;
+    }
+
+    void play(long id, int seat, int card, int side) {
+        if (!enabled()) return;
+        ByteBuffer b = record(PLAY, id, 3);
+        b.put((byte) seat).put((byte) card).put((byte) side);
+        offer(b);
+    }
+
+    void flip(long id, int side) {
+        if (!enabled()) return;
+        ByteBuffer b = record(FLIP, id, 1);
+        b.put((byte) side);
+        offer(b);
+    }
+
+    // result = "A" / "B" / "DRAW" / null (모두 나가서 버려짐)
+    void end(long id, String result) {
+        if (!enabled()) return;
+        ByteBuffer b = record(END, id, 1);
+        b.put((byte) (result == null ? 'X' : result.charAt(0)));
+        offer(b);
+    }
+
+    private static byte[] snapshotRecord(long id, String room, long startMs, GameState g, String[] names) {
+        byte[] name = room.getBytes(StandardCharsets.UTF_8);
+        byte[] state = g.toBytes();
+        byte[][] seats = encodeNames(names);
+        ByteBuffer b = record(SNAPSHOT, id, 8 + 2 + name.length + state.length + namesSize(seats));
+        b.putLong(startMs);
+        b.putShort((short) name.length);
+        b.put(name);
+        b.put(state);
+        putNames(b, seats);
+        return b.array();
+    }
+
+    // ===== 좌석 닉네임 블록 =====
+    private static byte[][] encodeNames(String[] names) {
+        byte[][] seats = new byte[names.length][];
+        for (int i = 0; i < names.length; i++)
+            seats[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        return seats;
+    }
+
+    private static int namesSize(byte[][] seats) {
+        int size = 1;
+        for (byte[] n : seats) size += 2 + n.length;
+        return size;
+    }
+
+    private static void putNames(ByteBuffer b, byte[][] seats) {
+        b.put((byte) seats.length);
+        for (byte[] n : seats) {
+            b.putShort((short) n.length);
+            b.put(n);
+        }
+    }
+
+    // 레코드에 블록이 없으면 (예전 형식) null
+    private static String[] readNames(ByteBuffer b, int end) {
+        if (b.position() >= end) return null;
+        String[] names = new String[b.get() & 0xFF];
+        for (int i = 0; i < names.length; i++) {
+            byte[] n = new byte[b.getShort() & 0xFFFF];
+            b.get(n);
+            names[i] = new String(n, StandardCharsets.UTF_8);
+        }
+        return names;
+    }
+
+    private static ByteBuffer record(byte type, long id, int body) {
+        int len = 1 + 8 + body;
+        ByteBuffer b = ByteBuffer.allocate(HEADER + len);
+        b.putShort((short) len);
+        b.putInt(0);   // crc 는 writer 가 채운다
+        b.put(type);
+        b.putLong(id);
+        return b;
+    }
+
+    // 너무 큰 레코드는 쓰지 않는다 (길이가 잘려 복구 때 그 세그먼트의 나머지를 잃게 되므로)
+    private void offer(ByteBuffer b) {
+        if (closed) return;
+        if (b.capacity() > MAX_RECORD) {
+            System.out.println("[WARN] journal 레코드가 너무 큼: " + b.capacity() + " bytes (game " + b.getLong(HEADER + 1) + ")");
+            return;
+        }
+        queue.offer(b.array());
+        records.increment();
+    }
+
+    // ==========================
+    // writer 스레드
+    // ==========================
+    private void writeLoop() {
+        List<byte[]> batch = new ArrayList<>();
+        while (!closed) {
+            try {
+                byte[] first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch);
+                flushBatch(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                // writer 가 죽으면 큐가 끝없이 쌓이므로 이 묶음만 버리고 계속 돈다
+                System.out.println("[WARN] journal 쓰기 실패: " + e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private synchronized void flushBatch(List<byte[]> batch) throws IOException {
+        if (!channel.isOpen()) return;   // 이미 닫힘 (종료 중)
+        for (byte[] rec : batch) {
+            seal(rec);
+            write(rec);
+            track(rec);
+        }
+        buf.force();   // 묶음당 한 번
+        batches.increment();
+        compact();
+    }
+
+    // 게임의 첫 레코드가 어느 세그먼트에 들어갔는지 / END 로 끝났는지 기록 (write 뒤에 불러야 segmentNo 가 맞다)
+    private void track(byte[] rec) {
+        byte type = rec[HEADER];
+        long id = ByteBuffer.wrap(rec).getLong(HEADER + 1);
+        if (type == START || type == SNAPSHOT) liveFrom.putIfAbsent(id, segmentNo);
+        else if (type == END) liveFrom.remove(id);
+    }
+
+    // 진행 중 게임이 하나도 걸려 있지 않은 닫힌 세그먼트를 지운다 (지금 쓰는 세그먼트는 남김)
+    private void compact() {
+        int keep = segmentNo;
+        for (int s : liveFrom.values()) keep = Math.min(keep, s);
+        for (; oldestSegment < keep; oldestSegment++) {
+            try {
+                Files.deleteIfExists(segmentPath(oldestSegment));
+            } catch (IOException e) {
+                System.out.println("[WARN] journal 세그먼트 삭제 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    private void seal(byte[] rec) {
+        crc.reset();
+        crc.update(rec, HEADER, rec.length - HEADER);
+        ByteBuffer.wrap(rec).putInt(2, (int) crc.getValue());
+    }
+
+    private void write(byte[] rec) throws IOException {
+        if (rec.length > MAX_RECORD) throw new IOException("record too large: " + rec.length);
+        if (buf.remaining() < rec.length + 2) roll();   // 끝 표시(길이 0)용 2바이트는 남긴다
+        buf.put(rec);
+    }
+
+    private void roll() throws IOException {
+        if (buf != null) {
+            buf.force();
+            channel.close();
+        }
+        segmentNo++;
+        channel = FileChannel.open(segmentPath(segmentNo), StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_SIZE);
+    }
+
+    // 남은 레코드를 쓰고 닫기 (종료 훅)
+    synchronized void close() {
+        if (closed || !enabled()) return;
+        closed = true;
+        writer.interrupt();
+
+        List<byte[]> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        try {
+            if (!rest.isEmpty()) flushBatch(rest);
+            buf.force();
+            channel.close();
+        } catch (IOException e) {
+            System.out.println("[WARN] journal 닫기 실패: " + e.getMessage());
+        }
+    }
+
+    // ==========================
+    // 복구
+    // ==========================
+    static final class Recovered {
+        final long id;
+        final String room;
+        final long startMs;
+        final long seed;
+        final GameState game;
+        final String[] names;   // 좌석별 닉네임 (예전 형식 기록이면 null)
+
+        Recovered(long id, String room, long startMs, long seed, GameState game, String[] names) {
+            this.id = id;
+            this.room = room;
+            this.startMs = startMs;
+            this.seed = seed;
+            this.game = game;
+            this.names = names;
+        }
+    }
+
+    private static final class Replay {
+        final long id;
+        final String room;
+        final long startMs;
+        final long seed;
+        final GameState game;
+        final String[] names;
+
+        Replay(long id, String room, long startMs, long seed, GameState game, String[] names) {
+            this.id = id;
+            this.room = room;
+            this.startMs = startMs;
+            this.seed = seed;
+            this.game = game;
+            this.names = names;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> list = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "*.seg")) {
+            for (Path p : ds) list.add(p);
+        }
+        list.sort(Comparator.comparingInt(GameJournal::segmentNumber));
+        return list;
+    }
+
+    private Path segmentPath(int no) {
+        return dir.resolve(String.format("%08d.seg", no));
+    }
+
+    private static int segmentNumber(Path p) {
+        String n = p.getFileName().toString();
+        return Integer.parseInt(n.substring(0, n.length() - 4));
+    }
+
+    // 세그먼트를 순서대로 읽어 끝나지 않은 게임만 남긴다 (깨진 레코드에서 그 세그먼트는 멈춤)
+    private Map<Long, Replay> replay(List<Path> segs) throws IOException {
+        Map<Long, Replay> active = new LinkedHashMap<>();
+        long maxId = 0;
+        CRC32C check = new CRC32C();
+
+        for (Path p : segs) {
+            ByteBuffer b = ByteBuffer.wrap(Files.readAllBytes(p));
+            while (b.remaining() >= HEADER) {
+                int start = b.position();
+                int len = b.getShort() & 0xFFFF;
+                if (len == 0 || b.remaining() < 4 + len) break;
+
+                int stored = b.getInt();
+                check.reset();
+                check.update(b.array(), b.position(), len);
+                if ((int) check.getValue() != stored) {
+                    System.out.println("[WARN] journal 레코드 손상: " + p.getFileName() + " @" + start);
+                    break;
+                }
+
+                int end = b.position() + len;
+                byte type = b.get();
+                long id = b.getLong();
+                maxId = Math.max(maxId, id);
+
+                if (type == START) {
+                    long startMs = b.getLong();
+                    long seed = b.getLong();
+                    String[] teams = new String[b.get()];
+                    for (int i = 0; i < teams.length; i++) teams[i] = String.valueOf((char) b.get());
+                    byte[] name = new byte[b.getShort() & 0xFFFF];
+                    b.get(name);
+                    String[] names = readNames(b, end);
+
+                    GameState g = new GameState(teams, seed);
+                    g.setStartedAt(startMs);
+                    active.put(id, new Replay(id, new String(name, StandardCharsets.UTF_8), startMs, seed, g, names));
+                } else if (type == SNAPSHOT) {
+                    long startMs = b.getLong();
+                    byte[] name = new byte[b.getShort() & 0xFFFF];
+                    b.get(name);
+                    GameState g = GameState.fromBytes(b);   // 스냅샷 뒤로 위치가 옮겨진다
+                    String[] names = readNames(b, end);
+                    g.setStartedAt(startMs);
+                    active.put(id, new Replay(id, new String(name, StandardCharsets.UTF_8), startMs, g.getSeed(), g, names));
+                } else {
+                    Replay r = active.get(id);
+                    if (r != null) {
+                        if (type == PLAY) {
+                            r.game.playCard(b.get(), b.get(), b.get());
+                        } else if (type == FLIP) {
+                            r.game.flipSide(b.get() == Wire.SIDE_L);
+                        } else if (type == END) {
+                            active.remove(id);
+                        }
+                    }
+                }
+                b.position(end);
+            }
+        }
+
+        // 이긴 쪽이 나왔는데 END 가 없던 게임은 끝난 것으로 본다
+        active.values().removeIf(r -> r.game.isFinished());
+        nextId.set(maxId + 1);
+        return active;
+    }
+}
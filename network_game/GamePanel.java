@@ -43,6 +43,11 @@ public class GamePanel extends JPanel {
     // ===== 카드 상태 =====
     private final List<String> myHand = new ArrayList<>();
 
+    // 손패 delta 순번 (서버 STATE 의 seq, 0~255 순환)
+    // 순번이 건너뛰면 다음 전체 재동기화(H:)까지 delta 를 적용하지 않는다.
+    private int handSeq = 0;
+    private boolean handStale = false;
+
     // CENTER 좌 / 우
     private String centerLeft;
     private String centerRight;
@@ -145,11 +150,16 @@ public class GamePanel extends JPanel {
 
 
     public void setHand(String data) {
+        setHand(data.isEmpty() ? new String[0] : data.split(","));
+    }
+
+    public void setHand(String[] cards) {
         myHand.clear();
         resetSelection();
 
-        if (!data.isEmpty())
-            myHand.addAll(Arrays.asList(data.split(",")));
+        myHand.addAll(Arrays.asList(cards));
+        handSeq = 0;
+        handStale = false;
 
         repaint();
     }
@@ -167,14 +177,81 @@ public class GamePanel extends JPanel {
 
     public void setCountsFromMessage(String data) {
         String[] p = data.split(" ");
-        teammateCount = Integer.parseInt(p[0]);
-        enemyLeftCount = Integer.parseInt(p[1]);
-        enemyRightCount = Integer.parseInt(p[2]);
-        sideLeftCount = Integer.parseInt(p[3]);
-        sideRightCount = Integer.parseInt(p[4]);
+        setCounts(
+                Integer.parseInt(p[0]),
+                Integer.parseInt(p[1]),
+                Integer.parseInt(p[2]),
+                Integer.parseInt(p[3]),
+                Integer.parseInt(p[4]));
+    }
+
+    public void setCounts(int teammate, int enemyLeft, int enemyRight, int sideLeft, int sideRight) {
+        teammateCount = teammate;
+        enemyLeftCount = enemyLeft;
+        enemyRightCount = enemyRight;
+        sideLeftCount = sideLeft;
+        sideRightCount = sideRight;
         repaint();
     }
     
+    // STATE 한 번 적용 (중앙 카드 + 카운트) → repaint 1번
+    // 손패 변화는 같은 EDT 작업 안에서 applyHandFull / applyHandDelta 로 먼저 반영한다.
+    public void applyState(String side, String card, int[] counts) {
+        if ("L".equals(side)) centerLeft = card;
+        else centerRight = card;
+
+        teammateCount = counts[0];
+        enemyLeftCount = counts[1];
+        enemyRightCount = counts[2];
+        sideLeftCount = counts[3];
+        sideRightCount = counts[4];
+
+        repaint();
+    }
+
+    // 주기적 전체 재동기화: 선택된 카드가 같은 자리에 그대로 있으면 선택 유지
+    public void applyHandFull(int seq, String[] cards) {
+        String keep = (selectedIndex >= 0 && selectedIndex < myHand.size())
+                ? myHand.get(selectedIndex) : null;
+
+        myHand.clear();
+        myHand.addAll(Arrays.asList(cards));
+        handSeq = seq;
+        handStale = false;
+
+        if (keep == null || selectedIndex >= myHand.size()
+                || !keep.equals(myHand.get(selectedIndex)))
+            clearSelection();
+    }
+
+    // 카드 1장 빠지고 (있으면) 1장 보충
+    public void applyHandDelta(int seq, String removed, String drawn) {
+        if (handStale || seq != ((handSeq + 1) & 0xFF)) {
+            handStale = true;
+            return;
+        }
+        handSeq = seq;
+
+        int idx = myHand.indexOf(removed);
+        if (idx < 0) {
+            handStale = true;
+            return;
+        }
+        myHand.remove(idx);
+
+        // 선택 위치 보정 (빠진 카드가 선택된 카드면 선택 해제)
+        if (idx == selectedIndex) clearSelection();
+        else if (idx < selectedIndex) selectedIndex--;
+
+        if (drawn != null) myHand.add(drawn);
+    }
+
+    private void clearSelection() {
+        selectedIndex = -1;
+        selectedCard = null;
+        choosingSide = false;
+    }
+
     private void resetSelection() {
         selectedIndex = -1;
         selectedCard = null;
@@ -202,13 +279,14 @@ public class GamePanel extends JPanel {
     	        CARD_H
     	    );
 
-    	    if (left.contains(x, y)) {
+    	    // 낼 수 없는 쪽은 보내지 않는다 (서버에서 어차피 거절됨)
+    	    if (left.contains(x, y) && canPlayOn(selectedCard, centerLeft)) {
     	        sender.accept("PLAY " + selectedCard + " L");
     	        resetSelection();
     	        return;
     	    }
 
-    	    if (right.contains(x, y)) {
+    	    if (right.contains(x, y) && canPlayOn(selectedCard, centerRight)) {
     	        sender.accept("PLAY " + selectedCard + " R");
     	        resetSelection();
     	        return;
@@ -228,8 +306,11 @@ public class GamePanel extends JPanel {
 
             if (r.contains(x, y)) {
             	if (selectedIndex == i) {
-            	    selectedCard = myHand.get(i);
-            	    choosingSide = true;   // 이제 L/R 고르기 단계
+            	    // 어느 쪽에도 못 내는 카드면 L/R 단계로 넘어가지 않음
+            	    if (isPlayable(myHand.get(i))) {
+            	        selectedCard = myHand.get(i);
+            	        choosingSide = true;   // 이제 L/R 고르기 단계
+            	    }
             	} else {
             	    selectedIndex = i;
             	}
@@ -269,8 +350,13 @@ public class GamePanel extends JPanel {
         if (centerRight != null)
             drawCard(g, centerRight, rightX, y, false);
 
-        g.setColor(Color.WHITE);
+        // L/R 고르기 단계에서는 낼 수 있는 쪽만 노란색
+        boolean hintL = choosingSide && canPlayOn(selectedCard, centerLeft);
+        boolean hintR = choosingSide && canPlayOn(selectedCard, centerRight);
+
+        g.setColor(hintL ? Color.YELLOW : Color.WHITE);
         g.drawString("L", leftX + CARD_W / 2 - 4, y - 5);
+        g.setColor(hintR ? Color.YELLOW : Color.WHITE);
         g.drawString("R", rightX + CARD_W / 2 - 4, y - 5);
         
         if (choosingSide) {
@@ -313,11 +399,23 @@ public class GamePanel extends JPanel {
 
         for (int i = 0; i < myHand.size(); i++) {
             boolean selected = (i == selectedIndex);
-            drawCard(g, myHand.get(i), x, y, selected);
+            // 낼 수 있는 카드는 살짝 올려서 표시 (힌트)
+            int dy = (!selected && isPlayable(myHand.get(i))) ? -12 : 0;
+            drawCard(g, myHand.get(i), x, y + dy, selected);
             x += CARD_OVERLAP;
         }
     }
 
+    // ===== 낼 수 있는 카드 힌트 (Card 의 인접 표 조회) =====
+    private boolean isPlayable(String card) {
+        return canPlayOn(card, centerLeft) || canPlayOn(card, centerRight);
+    }
+
+    private static boolean canPlayOn(String card, String center) {
+        if (card == null || center == null) return false;
+        return Card.canPlace(Card.fromString(center).ordinal(), Card.fromString(card).ordinal());
+    }
+
     private void drawCard(Graphics g, String card, int x, int y, boolean selected) {
         Image img = loadCardImage(card);
 
@@ -0,0 +1,196 @@
+package network_game;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// 헤드리스 게임 시뮬레이터
+// 소켓 / Swing 없이 GameState 만으로 게임을 끝까지 돌린다. 규칙 엔진 처리량 측정 +
+// 배분과 ±1 순환 규칙이 한쪽 팀 / 좌석에 치우치지 않는지 확인하는 용도.
+//
+//   java network_game.GameSimulator 1000000              → 100만 판, random 정책
+//   java network_game.GameSimulator 1000000 first 42     → 정책 / 기준 seed 지정
+//
+// 진행 방식 (실제 게임은 동시 진행이라 근사)
+//   좌석 0→1→2→3 순서로 돌며 각자 정책으로 한 수를 고른다 (낼 카드가 없으면 넘김).
+//   네 명 모두 낼 수 없으면 (GameState.isStalled, 서버와 같은 판정) 보조 더미를 양쪽 다 뒤집고,
+//   보조 더미도 없으면 시간 초과 판정.
+//   MAX_PLAYS 수를 넘겨도 시간 초과로 본다 (30초 제한 대신).
+//
+// 작업은 CHUNK 판씩 나눠 병렬 스트림으로 모든 코어에 돌린다.
+// 덩어리마다 seed = 기준 seed + 번호 라서 같은 인자면 결과가 같다.
+public class GameSimulator {
+
+    private static final int CHUNK = 10_000;
+    private static final int MAX_PLAYS = 1_000;
+
+    // ==========================
+    // 플레이어 정책
+    // ==========================
+    // playL / playR = 그 쪽에 낼 수 있는 카드 비트 (Card.ordinal), 둘 중 하나는 0 이 아님
+    // 반환: move(card, side)
+    interface Policy {
+        int choose(GameState g, int seat, long playL, long playR, SplittableRandom rng);
+    }
+
+    static int move(int card, int side) {
+        return (card << 1) | side;
+    }
+
+    // 낼 수 있는 수 중 아무거나
+    static final Policy RANDOM = (g, seat, playL, playR, rng) -> {
+        int nl = Long.bitCount(playL);
+        int k = rng.nextInt(nl + Long.bitCount(playR));
+        if (k < nl) return move(nth(playL, k), GameState.L);
+        return move(nth(playR, k - nl), GameState.R);
+    };
+
+    // 가장 낮은 카드, L 먼저
+    static final Policy FIRST = (g, seat, playL, playR, rng) ->
+            playL != 0
+                    ? move(Long.numberOfTrailingZeros(playL), GameState.L)
+                    : move(Long.numberOfTrailingZeros(playR), GameState.R);
+
+    static Policy policy(String name) {
+        switch (name) {
+            case "random": return RANDOM;
+            case "first":  return FIRST;
+            default: throw new IllegalArgumentException("unknown policy: " + name);
+        }
+    }
+
+    // k 번째 (0부터) 켜진 비트
+    private static int nth(long bits, int k) {
+        for (int i = 0; i < k; i++) bits &= bits - 1;
+        return Long.numberOfTrailingZeros(bits);
+    }
+
+    // ==========================
+    // 결과 집계
+    // ==========================
+    static final class Stats {
+        long games, plays, flips, wins, timeouts;
+        long teamA, teamB, draws;
+        final long[] winsBySeat = new long[GameState.SEATS];
+
+        Stats merge(Stats o) {
+            games += o.games;
+            plays += o.plays;
+            flips += o.flips;
+            wins += o.wins;
+            timeouts += o.timeouts;
+            teamA += o.teamA;
+            teamB += o.teamB;
+            draws += o.draws;
+            for (int i = 0; i < winsBySeat.length; i++) winsBySeat[i] += o.winsBySeat[i];
+            return this;
+        }
+    }
+
+    // ==========================
+    // 실행
+    // ==========================
+    public static void main(String[] args) {
+        long games = (args.length > 0) ? Long.parseLong(args[0]) : 1_000_000;
+        String policyName = (args.length > 1) ? args[1] : "random";
+        long seed = (args.length > 2) ? Long.parseLong(args[2]) : 1;
+
+        Policy[] policies = new Policy[GameState.SEATS];
+        for (int i = 0; i < policies.length; i++) policies[i] = policy(policyName);
+
+        System.out.println("시뮬레이션 " + games + "판 (" + policyName + ", seed " + seed + ", 코어 "
+                + Runtime.getRuntime().availableProcessors() + ")");
+
+        long start = System.nanoTime();
+        Stats s = run(games, policies, seed);
+        double sec = (System.nanoTime() - start) / 1e9;
+
+        print(s, sec);
+    }
+
+    static Stats run(long games, Policy[] policies, long seed) {
+        int chunks = (int) ((games + CHUNK - 1) / CHUNK);
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(c -> runChunk(Math.min(CHUNK, games - (long) c * CHUNK), policies, seed + c))
+                .reduce(Stats::merge)
+                .orElseGet(Stats::new);
+    }
+
+    // 한 스레드 안에서 n 판 (GameState 하나를 reset 으로 재사용)
+    private static Stats runChunk(long n, Policy[] policies, long seed) {
+        Stats s = new Stats();
+        SplittableRandom rng = new SplittableRandom(seed);
+        GameState g = new GameState(0);
+
+        for (long i = 0; i < n; i++) {
+            g.reset(rng.nextLong());
+            playOut(g, policies, rng, s);
+        }
+        return s;
+    }
+
+    private static void playOut(GameState g, Policy[] policies, SplittableRandom rng, Stats s) {
+        int players = g.getPlayers();
+        int plays = 0;
+        int seat = 0;
+
+        s.games++;
+        while (plays < MAX_PLAYS) {
+            if (g.isStalled()) {
+                // 아무도 못 냄 → 보조 더미 뒤집기
+                boolean l = g.flipSide(true);
+                boolean r = g.flipSide(false);
+                if (!l && !r) break;
+                s.flips++;
+                continue;
+            }
+
+            long playL = g.getPlayableMask(seat, GameState.L);
+            long playR = g.getPlayableMask(seat, GameState.R);
+
+            if ((playL | playR) != 0) {
+                int m = policies[seat].choose(g, seat, playL, playR, rng);
+                g.playCard(seat, m >>> 1, m & 1);
+                plays++;
+
+                if (g.isFinished()) {
+                    s.plays += plays;
+                    s.wins++;
+                    s.winsBySeat[seat]++;
+                    count(s, g.getWinnerTeam());
+                    return;
+                }
+            }
+
+            seat = (seat + 1) % players;
+        }
+
+        s.plays += plays;
+        s.timeouts++;
+        count(s, g.judgeByTimeOver());
+    }
+
+    private static void count(Stats s, String result) {
+        if ("A".equals(result)) s.teamA++;
+        else if ("B".equals(result)) s.teamB++;
+        else s.draws++;
+    }
+
+    private static void print(Stats s, double sec) {
+        System.out.printf("  %.0f games/s, %.0f plays/s (%.2f s)%n", s.games / sec, s.plays / sec, sec);
+        System.out.printf("  판당 평균 %.1f 수, 보조 더미 뒤집기 %.2f 번%n",
+                (double) s.plays / s.games, (double) s.flips / s.games);
+        System.out.printf("  승리 %.1f%% / 시간 초과 %.1f%%%n", pct(s.wins, s.games), pct(s.timeouts, s.games));
+        System.out.printf("  팀 A %.1f%% / 팀 B %.1f%% / 무승부 %.1f%%%n",
+                pct(s.teamA, s.games), pct(s.teamB, s.games), pct(s.draws, s.games));
+
+        StringBuilder sb = new StringBuilder("  좌석별 승리 (마지막 카드를 낸 좌석)");
+        for (int i = 0; i < s.winsBySeat.length; i++)
+            sb.append(String.format("  %d:%.1f%%", i, pct(s.winsBySeat[i], s.wins)));
+        System.out.println(sb);
+    }
+
+    private static double pct(long a, long b) {
+        return b == 0 ? 0 : 100.0 * a / b;
+    }
+}
@@ -1,107 +1,298 @@
 package network_game;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.*;
-
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+// 게임 상태
+// 카드는 Card.ordinal() (0~51) 로 다루고, 자료는 모두 좌석(0~3) 기준 기본형 배열이다.
+// 닉네임은 모른다. 서버가 startGame 에서 닉네임 → 좌석을 한 번 정해 두고 좌석 번호로 부른다.
+// (봇 / 시뮬레이터도 좌석 번호만으로 쓸 수 있다)
+//   손패      : 순서 배열 (최대 5장, 화면 순서 유지) + 카드별 장수 + 비트보드 (있으면 1)
+//   개인 더미 : 배열 스택
+//   보조 더미 : 배열 스택 (L=0, R=1)
+// 2덱이라 같은 카드가 손에 2장 있을 수 있어서, 비트는 "1장 이상" 을 뜻하고 장수는 handCount 에 있다.
+// playCard 는 객체를 만들지 않는다.
+//
+// 섞기: 104장 배열 하나를 Fisher-Yates 로 섞는다. 난수는 seed 로 만든 SplittableRandom 이라
+// seed 만 알면 같은 게임을 그대로 다시 만들 수 있다 (getSeed). reset 으로 같은 객체에 다시 배분 가능.
+//
+// 스냅샷: toBytes / fromBytes 로 현재 상태 전체를 작은 바이트 배열로 (Java 직렬화 안 씀)
+//   ['G']['S'][버전 u8][인원 u8][팀 문자 x 인원][winner 0|'A'|'B'][seed i64][경과 ms i64]
+//   [중앙 L u8][중앙 R u8][마지막 보충 u8|0xFF]
+//   좌석마다 [손패 수][카드...][개인 더미 수][카드... 바닥부터]
+//   L / R  [보조 더미 수][카드... 바닥부터]
+//
+// 스레드 안전하지 않다. 서버에서는 그 방의 Mailbox 작업 안에서만 읽고 바꾼다 (잠금 없음).
 public class GameState {
 
+    static final int SEATS = 4;
+    static final int HAND_SIZE = 5;
+    static final int PERSONAL_DECK = 18;
+    static final int SIDE_PILE = 5;
+    static final int DECK_CARDS = Card.COUNT * 2;
+
+    static final int L = Wire.SIDE_L;
+    static final int R = Wire.SIDE_R;
+
+    // 좌석 순서대로 번갈아 팀 (서버 입장 순서 팀 배정과 같음)
+    static final String[] DEFAULT_TEAMS = {"A", "B", "A", "B"};
+
+    // ===== 섞기 =====
+    private final byte[] cards = new byte[DECK_CARDS];
+    private long seed;
+
     // ===== 플레이어 데이터 =====
-    private final Map<String, Deque<Card>> hands = new HashMap<>();
-    private final Map<String, Deque<Card>> personalDecks = new HashMap<>();
-    private final Map<String, String> teamMap = new HashMap<>();
+    private final int players;
+    private final String[] teamOf;
+
+    private final byte[][] hand = new byte[SEATS][HAND_SIZE];
+    private final int[] handSize = new int[SEATS];
+    private final byte[][] handCount = new byte[SEATS][Card.COUNT];
+    private final long[] handBits = new long[SEATS];
+
+    // 모든 좌석 손패를 합친 장수 / 비트 (막힘 판정용, addToHand / removeFromHand 에서 같이 고침)
+    private final byte[] tableCount = new byte[Card.COUNT];
+    private long tableBits;
+
+    private final byte[][] deck = new byte[SEATS][PERSONAL_DECK];
+    private final int[] deckSize = new int[SEATS];
 
     // ===== 중앙 카드 (2장) =====
-    private Card centerLeft;
-    private Card centerRight;
+    private final int[] center = new int[2];
 
     // ===== 보조 더미 =====
-    private final Deque<Card> sideLeft = new ArrayDeque<>();
-    private final Deque<Card> sideRight = new ArrayDeque<>();
+    private final byte[][] side = new byte[2][SIDE_PILE];
+    private final int[] sideSize = new int[2];
 
     private String winnerTeam = null;
 
-    public GameState(List<String> players) {
+    // 배분 시각 (경과 시간 계산용)
+    private long startedAt;
 
-        // 팀 배정 (앞 2명 A, 뒤 2명 B)
-        for (int i = 0; i < players.size(); i++) {
-            teamMap.put(players.get(i), i < 2 ? "A" : "B");
-        }
+    // 마지막 playCard 에서 개인 더미로부터 보충된 카드 (없으면 -1)
+    private int lastDrawn = -1;
 
-        // ===== 카드 2덱 생성 =====
-        List<Card> deck = new ArrayList<>();
-        char[] suits = {'C', 'D', 'H', 'S'};
+    public GameState() {
+        this(DEFAULT_TEAMS);
+    }
 
-        for (int d = 0; d < 2; d++) {
-            for (char s : suits)
-                for (int n = 1; n <= 13; n++)
-                    deck.add(new Card(n, s));
-        }
+    public GameState(long seed) {
+        this(DEFAULT_TEAMS, seed);
+    }
+
+    // teams[seat] = 그 좌석의 팀 ("A" / "B"), 길이 = 인원 수
+    public GameState(String[] teams) {
+        this(teams, ThreadLocalRandom.current().nextLong());
+    }
+
+    public GameState(String[] teams, long seed) {
+        if (teams.length > SEATS)
+            throw new IllegalArgumentException("too many players: " + teams.length);
+
+        this.players = teams.length;
+        this.teamOf = teams.clone();
+        reset(seed);
+    }
+
+    // seed 를 다른 난수원에서 받아 배분 (기록되는 건 seed 라 재현 가능)
+    public void reset(RandomGenerator seeds) {
+        reset(seeds.nextLong());
+    }
 
-        Collections.shuffle(deck);
+    // 같은 객체에 새 게임을 배분 (배열 재사용)
+    public final void reset(long seed) {
+        this.seed = seed;
+        this.startedAt = System.currentTimeMillis();
+        shuffle(new SplittableRandom(seed));
+
+        Arrays.fill(handSize, 0);
+        Arrays.fill(handBits, 0);
+        Arrays.fill(deckSize, 0);
+        Arrays.fill(sideSize, 0);
+        for (byte[] hc : handCount) Arrays.fill(hc, (byte) 0);
+        Arrays.fill(tableCount, (byte) 0);
+        tableBits = 0;
+        winnerTeam = null;
+        lastDrawn = -1;
+
+        int next = 0;
 
         // ===== 손패 5장 =====
-        for (String p : players) {
-            Deque<Card> h = new ArrayDeque<>();
-            for (int i = 0; i < 5; i++)
-                h.add(deck.remove(0));
-            hands.put(p, h);
-        }
+        for (int p = 0; p < players; p++)
+            for (int i = 0; i < HAND_SIZE; i++)
+                addToHand(p, cards[next++]);
 
         // ===== 개인 더미 18장 =====
-        for (String p : players) {
-            Deque<Card> pd = new ArrayDeque<>();
-            for (int i = 0; i < 18; i++)
-                pd.push(deck.remove(0));
-            personalDecks.put(p, pd);
-        }
+        for (int p = 0; p < players; p++)
+            for (int i = 0; i < PERSONAL_DECK; i++)
+                deck[p][deckSize[p]++] = cards[next++];
 
         // ===== 중앙 카드 2장 =====
-        centerLeft = deck.remove(0);
-        centerRight = deck.remove(0);
+        center[L] = cards[next++];
+        center[R] = cards[next++];
 
         // ===== 보조 더미 =====
-        for (int i = 0; i < 5; i++) sideLeft.push(deck.remove(0));
-        for (int i = 0; i < 5; i++) sideRight.push(deck.remove(0));
+        for (int i = 0; i < SIDE_PILE; i++) side[L][sideSize[L]++] = cards[next++];
+        for (int i = 0; i < SIDE_PILE; i++) side[R][sideSize[R]++] = cards[next++];
+    }
+
+    // 카드 2덱 (ordinal 0~51 두 벌) 을 제자리에서 섞는다
+    private void shuffle(RandomGenerator rng) {
+        for (int i = 0; i < DECK_CARDS; i++)
+            cards[i] = (byte) (i % Card.COUNT);
+
+        for (int i = DECK_CARDS - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            byte t = cards[i];
+            cards[i] = cards[j];
+            cards[j] = t;
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getElapsedMs() {
+        return System.currentTimeMillis() - startedAt;
+    }
+
+    // 복구할 때 원래 시작 시각으로 맞춘다
+    void setStartedAt(long epochMs) {
+        this.startedAt = epochMs;
+    }
+
+    // ==========================
+    // 스냅샷
+    // ==========================
+    static final int SNAPSHOT_VERSION = 1;
+
+    public byte[] toBytes() {
+        int size = 2 + 1 + 1 + players + 1 + 8 + 8 + 3 + 2 * SIDE_PILE + 2;
+        for (int p = 0; p < players; p++) size += 2 + handSize[p] + deckSize[p];
+
+        ByteBuffer b = ByteBuffer.allocate(size);
+        b.put((byte) 'G').put((byte) 'S').put((byte) SNAPSHOT_VERSION);
+        b.put((byte) players);
+        for (int p = 0; p < players; p++) b.put((byte) teamOf[p].charAt(0));
+        b.put((byte) (winnerTeam == null ? 0 : winnerTeam.charAt(0)));
+        b.putLong(seed);
+        b.putLong(getElapsedMs());
+        b.put((byte) center[L]).put((byte) center[R]).put((byte) lastDrawn);
+
+        for (int p = 0; p < players; p++) {
+            b.put((byte) handSize[p]).put(hand[p], 0, handSize[p]);
+            b.put((byte) deckSize[p]).put(deck[p], 0, deckSize[p]);
+        }
+        for (int s = L; s <= R; s++)
+            b.put((byte) sideSize[s]).put(side[s], 0, sideSize[s]);
+
+        return Arrays.copyOf(b.array(), b.position());
+    }
+
+    public static GameState fromBytes(byte[] data) {
+        return fromBytes(ByteBuffer.wrap(data));
+    }
+
+    // b 의 현재 위치부터 스냅샷 하나를 읽고 그 뒤로 위치를 옮긴다 (뒤에 다른 데이터가 이어질 때)
+    static GameState fromBytes(ByteBuffer b) {
+        try {
+            return decode(b);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("corrupt snapshot", e);
+        }
+    }
+
+    private static GameState decode(ByteBuffer b) {
+        if (b.get() != 'G' || b.get() != 'S')
+            throw new IllegalArgumentException("not a GameState snapshot");
+        int version = b.get();
+        if (version != SNAPSHOT_VERSION)
+            throw new IllegalArgumentException("unsupported snapshot version: " + version);
+
+        String[] teams = new String[b.get() & 0xFF];
+        for (int p = 0; p < teams.length; p++) teams[p] = String.valueOf((char) b.get());
+
+        GameState g = new GameState(teams, 0);
+        int w = b.get();
+        g.winnerTeam = (w == 0) ? null : String.valueOf((char) w);
+        g.seed = b.getLong();
+        g.startedAt = System.currentTimeMillis() - b.getLong();
+        g.center[L] = b.get() & 0xFF;
+        g.center[R] = b.get() & 0xFF;
+        int last = b.get() & 0xFF;
+        g.lastDrawn = (last == 0xFF) ? -1 : last;
+
+        // 배분 결과는 지우고 스냅샷 내용으로 채움 (장수 / 비트는 다시 계산)
+        Arrays.fill(g.handSize, 0);
+        Arrays.fill(g.handBits, 0);
+        for (byte[] hc : g.handCount) Arrays.fill(hc, (byte) 0);
+        Arrays.fill(g.tableCount, (byte) 0);
+        g.tableBits = 0;
+
+        for (int p = 0; p < teams.length; p++) {
+            int n = b.get() & 0xFF;
+            for (int i = 0; i < n; i++) g.addToHand(p, g.checkCard(b.get()));
+            g.deckSize[p] = b.get() & 0xFF;
+            for (int i = 0; i < g.deckSize[p]; i++) g.deck[p][i] = (byte) g.checkCard(b.get());
+        }
+        for (int s = L; s <= R; s++) {
+            g.sideSize[s] = b.get() & 0xFF;
+            for (int i = 0; i < g.sideSize[s]; i++) g.side[s][i] = (byte) g.checkCard(b.get());
+        }
+        g.checkCard(g.center[L]);
+        g.checkCard(g.center[R]);
+        return g;
+    }
+
+    private int checkCard(int c) {
+        if (c < 0 || c >= Card.COUNT) throw new IllegalArgumentException("bad card in snapshot: " + c);
+        return c;
     }
 
     // ==========================
     // 카드 플레이
-    // side = "L" or "R"
+    // side = L(0) or R(1)
     // ==========================
-    public synchronized boolean playCard(String player, Card card, String side) {
+    public boolean playCard(int seat, Card card, int side) {
+        return playCard(seat, card.ordinal(), side);
+    }
 
-        Deque<Card> hand = hands.get(player);
-        if (hand == null || !hand.contains(card)) return false;
+    public boolean playCard(int p, int c, int s) {
+        if (p < 0 || p >= players) return false;
 
-        Card center = side.equals("L") ? centerLeft : centerRight;
-        if (!canPlay(card, center)) return false;
+        // 손에 있고 (비트) + 중앙 카드와 이어지는지 (인접 표) 를 한 번에
+        if ((getPlayableMask(p, s) & (1L << c)) == 0) return false;
 
         // 카드 내려놓기
-        hand.remove(card);
-        if (side.equals("L")) centerLeft = card;
-        else centerRight = card;
+        removeFromHand(p, c);
+        center[s] = c;
 
         // 손패 보충
-        Deque<Card> pd = personalDecks.get(player);
-        if (hand.size() < 5 && !pd.isEmpty())
-            hand.add(pd.pop());
+        lastDrawn = -1;
+        if (handSize[p] < HAND_SIZE && deckSize[p] > 0) {
+            lastDrawn = deck[p][--deckSize[p]];
+            addToHand(p, lastDrawn);
+        }
 
         // 승리 조건
-        if (hand.isEmpty() && pd.isEmpty())
-            winnerTeam = teamMap.get(player);
+        if (handSize[p] == 0 && deckSize[p] == 0)
+            winnerTeam = teamOf[p];
 
         return true;
     }
-    
-    public synchronized String judgeByTimeOver() {
+
+    public String judgeByTimeOver() {
         int teamACount = 0;
         int teamBCount = 0;
 
-        for (String p : hands.keySet()) {
-            int count =
-                    getHandCount(p) +
-                    getPersonalDeckCount(p);
+        for (int p = 0; p < players; p++) {
+            int count = handSize[p] + deckSize[p];
 
-            if ("A".equals(teamMap.get(p)))
+            if ("A".equals(teamOf[p]))
                 teamACount += count;
             else
                 teamBCount += count;
@@ -112,23 +303,46 @@ public class GameState {
         return "DRAW";
     }
 
-    // ±1 규칙 (A-K 순환)
-    private boolean canPlay(Card c, Card center) {
-        int a = c.number;
-        int b = center.number;
-        if (Math.abs(a - b) == 1) return true;
-        return (a == 1 && b == 13) || (a == 13 && b == 1);
+    // ==========================
+    // 손패 (순서 배열 + 장수 + 비트)
+    // ==========================
+    private void addToHand(int p, int c) {
+        hand[p][handSize[p]++] = (byte) c;
+        handCount[p][c]++;
+        handBits[p] |= 1L << c;
+        tableCount[c]++;
+        tableBits |= 1L << c;
+    }
+
+    // 같은 카드가 2장이면 앞쪽 것을 뺀다 (클라이언트 delta 적용과 같은 규칙)
+    private void removeFromHand(int p, int c) {
+        byte[] h = hand[p];
+        int n = handSize[p];
+        int i = 0;
+        while (h[i] != c) i++;
+        System.arraycopy(h, i + 1, h, i, n - i - 1);
+        handSize[p] = n - 1;
+
+        if (--handCount[p][c] == 0)
+            handBits[p] &= ~(1L << c);
+        if (--tableCount[c] == 0)
+            tableBits &= ~(1L << c);
     }
 
     // ==========================
-    // 보조 더미 뒤집기
+    // 막힘 / 보조 더미 뒤집기
     // ==========================
-    public synchronized boolean flipSide(boolean left) {
-        Deque<Card> side = left ? sideLeft : sideRight;
-        if (side.isEmpty()) return false;
+    // 게임 중인데 어느 좌석도 어느 쪽에도 낼 카드가 없음 (좌석을 돌지 않고 표 조회 한 번)
+    public boolean isStalled() {
+        if (winnerTeam != null) return false;
+        return (tableBits & (Card.adjacent(center[L]) | Card.adjacent(center[R]))) == 0;
+    }
+
+    public boolean flipSide(boolean left) {
+        int s = left ? L : R;
+        if (sideSize[s] == 0) return false;
 
-        if (left) centerLeft = side.pop();
-        else centerRight = side.pop();
+        center[s] = side[s][--sideSize[s]];
         return true;
     }
 
@@ -136,38 +350,70 @@ public class GameState {
     // 조회 메서드
     // ==========================
     public Card getCenterLeft() {
-        return centerLeft;
+        return Card.fromOrdinal(center[L]);
     }
 
     public Card getCenterRight() {
-        return centerRight;
+        return Card.fromOrdinal(center[R]);
+    }
+
+    public int getCenter(int side) {
+        return center[side];
+    }
+
+    public int getPlayers() {
+        return players;
+    }
+
+    public String getTeam(int seat) {
+        return teamOf[seat];
     }
 
-    public String getHandString(String name) {
-        Deque<Card> h = hands.get(name);
-        if (h == null || h.isEmpty()) return "";
+    // 손에 있는 카드 중 해당 쪽 중앙 카드에 낼 수 있는 것 (비트 = Card.ordinal)
+    // (카드, 쪽) 조합 전체 = getPlayableMask(seat, L) 과 getPlayableMask(seat, R)
+    public long getPlayableMask(int seat, int side) {
+        return handBits[seat] & Card.adjacent(center[side]);
+    }
+
+    // 어느 쪽에든 낼 수 있는 카드 (0 이면 이 좌석은 낼 카드가 없음)
+    public long getPlayableCards(int seat) {
+        long adj = Card.adjacent(center[L]) | Card.adjacent(center[R]);
+        return handBits[seat] & adj;
+    }
+
+    public String getHandString(int seat) {
+        if (handSize[seat] == 0) return "";
         StringBuilder sb = new StringBuilder();
-        for (Card c : h) sb.append(c).append(",");
-        sb.setLength(sb.length() - 1);
+        for (int i = 0; i < handSize[seat]; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(Card.nameOf(hand[seat][i]));
+        }
         return sb.toString();
     }
 
-    public int getHandCount(String name) {
-        Deque<Card> h = hands.get(name);
-        return h == null ? 0 : h.size();
+    // 바이너리 프로토콜용 (카드 1장 = 1바이트)
+    public byte[] getHandOrdinals(int seat) {
+        return Arrays.copyOf(hand[seat], handSize[seat]);
+    }
+
+    public Card getLastDrawn() {
+        return lastDrawn < 0 ? null : Card.fromOrdinal(lastDrawn);
+    }
+
+    public int getHandCount(int seat) {
+        return handSize[seat];
     }
 
-    public int getPersonalDeckCount(String name) {
-        Deque<Card> pd = personalDecks.get(name);
-        return pd == null ? 0 : pd.size();
+    public int getPersonalDeckCount(int seat) {
+        return deckSize[seat];
     }
 
     public int getSideLeftCount() {
-        return sideLeft.size();
+        return sideSize[L];
     }
 
     public int getSideRightCount() {
-        return sideRight.size();
+        return sideSize[R];
     }
 
     public boolean isFinished() {
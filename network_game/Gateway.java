@@ -0,0 +1,700 @@
+package network_game;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 로컬 게이트웨이 — 방을 여러 RoomServer 프로세스(샤드)에 나눠 싣는다
+//
+//   java -Droomserver.journal=journal-5101 network_game.RoomServer nio 5101   (샤드마다 journal 폴더 따로)
+//   java -Droomserver.journal=journal-5102 network_game.RoomServer nio 5102
+//   java network_game.Gateway 5001 shards.txt                                  (한 줄에 host:port 하나)
+//
+// 클라이언트는 게이트웨이에만 붙고 프로토콜은 그대로다.
+//   로비 단계 (닉네임, GET_ROOMS, SUBSCRIBE_ROOMS) 는 게이트웨이가 직접 처리한다.
+//     - 닉네임 중복은 게이트웨이 한 곳에서 검사 → 모든 샤드에서 유일
+//     - 방 목록은 샤드마다 붙여 둔 구독 연결(@gateway)로 모아서 같은 ROOM_SYNC / ROOM_* 형식으로 내보낸다
+//   CREATE / ENTER_ROOM 은 이미 있는 방이면 그 방이 있는 샤드, 새 방이면 일관 해시 링(ShardRing)이 고른 샤드로
+//     백엔드 연결을 새로 열어 클라이언트가 보낸 닉네임 줄 그대로 핸드셰이크한 뒤 명령을 넘긴다.
+//     ENTER_OK 가 오면 그 뒤로는 해석하지 않고 양방향 바이트를 그대로 중계한다 (텍스트 / 바이너리 무관).
+//     입장에 실패하면 백엔드 연결을 닫고 로비 단계로 돌아간다.
+//   샤드가 준 재접속 토큰은 앞에 샤드 주소, 뒤에 닉네임을 붙여 "SESSION host:port/토큰/닉네임" 으로 넘긴다.
+//     RESUME host:port/토큰/닉네임 이 오면 로비를 건너뛰고 그 샤드에 RESUME 을 넘긴 뒤 바로 중계한다.
+//     닉네임은 되찾은 세션이 게이트웨이에서도 다시 잡아 두기 위한 것 (샤드는 토큰만 본다).
+//
+// 샤드 목록 파일은 SHARD_POLL 마다 수정 시각을 보고 다시 읽는다 (금칙어 파일과 같은 방식).
+// 샤드를 더해도 기존 방은 원래 샤드에 그대로 있고, 새로 만드는 방만 새 링으로 배정된다.
+// 샤드를 빼면 그 샤드의 방은 목록에서 빠진다 (이미 중계 중인 연결은 끝날 때까지 유지).
+public class Gateway {
+
+    private static final int PORT = 5001;
+    private static final long SHARD_POLL = 2_000;
+    private static final long RECONNECT = 1_000;
+    private static final long HANDSHAKE_TIMEOUT =
+            Long.getLong("gateway.handshakeTimeout", 60_000);
+
+    // 샤드 방 목록 구독에 쓰는 닉네임 (미리 잡아 두므로 클라이언트는 못 씀)
+    static final String MONITOR_NAME = "@gateway";
+
+    // 닉네임 → 쥐고 있는 Session (RESUME 한 세션이 예전 세션에서 넘겨받으므로 주인을 같이 둔다)
+    private static final Map<String, Object> usedNames = new ConcurrentHashMap<>();
+    private static final Directory directory = new Directory();
+
+    // 주소 → 샤드, 링은 샤드가 바뀔 때마다 새로 만들어 교체
+    private static final Map<String, Shard> shards = new ConcurrentHashMap<>();
+    private static volatile ShardRing<Shard> ring = new ShardRing<>(Map.of());
+
+    private static final ThreadFactory threads = Thread.ofVirtual().name("gw-", 0).factory();
+
+    public static void main(String[] args) throws IOException {
+        // 실행 인자: [port] [샤드 목록 파일]
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : PORT;
+        File file = new File((args.length > 1) ? args[1] : "shards.txt");
+
+        usedNames.put(MONITOR_NAME, Gateway.class);
+        loadShards(file);
+        watchShards(file);
+        System.out.println("Gateway 시작 — 포트 " + port + " (샤드 " + shards.size() + "개)");
+
+        try (ServerSocket serverSocket = new ServerSocket(port, 1024)) {
+            while (true) {
+                Socket sock = serverSocket.accept();
+                threads.newThread(new Session(sock)).start();
+            }
+        }
+    }
+
+    // ==========================
+    // 샤드 목록
+    // ==========================
+    private static synchronized void loadShards(File file) {
+        Set<String> wanted = new LinkedHashSet<>();
+        try (BufferedReader br = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#"))
+                    wanted.add(line);
+            }
+        } catch (IOException e) {
+            System.out.println("[WARN] 샤드 목록 읽기 실패: " + e.getMessage());
+            return;
+        }
+
+        for (String addr : wanted) {
+            if (shards.containsKey(addr)) continue;
+            try {
+                Shard s = new Shard(addr);
+                shards.put(addr, s);
+                s.start();
+                System.out.println("샤드 추가: " + addr);
+            } catch (IllegalArgumentException e) {
+                System.out.println("[WARN] 잘못된 샤드 주소: " + addr);
+            }
+        }
+
+        for (Iterator<Shard> it = shards.values().iterator(); it.hasNext(); ) {
+            Shard s = it.next();
+            if (wanted.contains(s.addr)) continue;
+            it.remove();
+            s.stop();
+            System.out.println("샤드 제거: " + s.addr);
+        }
+
+        ring = new ShardRing<>(new HashMap<>(shards));
+    }
+
+    private static void watchShards(File file) {
+        Thread t = new Thread(() -> {
+            long seen = file.lastModified();
+            while (true) {
+                try {
+                    Thread.sleep(SHARD_POLL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                long m = file.lastModified();
+                if (m == seen || m == 0) continue;
+                seen = m;
+                loadShards(file);
+            }
+        }, "shards-watch");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // 다음 텍스트 메시지 (바이너리 프레임은 건너뜀). EOF 면 null
+    private static String nextLine(Wire.Reader in) throws IOException {
+        final String[] line = new String[1];
+        while (line[0] == null) {
+            boolean more = in.next(new Wire.Handler() {
+                @Override
+                public void onLine(String l) {
+                    line[0] = l;
+                }
+
+                @Override
+                public void onFrame(int op, byte[] buf, int len) {
+                }
+            });
+            if (!more) return null;
+        }
+        return line[0];
+    }
+
+    // ==========================
+    // 샤드 = 백엔드 RoomServer 1개 + 방 목록 구독 연결
+    // ==========================
+    static final class Shard implements Runnable {
+
+        final String addr;
+        private final String host;
+        private final int port;
+
+        private volatile boolean stopped = false;
+        private volatile Socket monitor;
+
+        Shard(String addr) {
+            int i = addr.lastIndexOf(':');
+            if (i <= 0) throw new IllegalArgumentException("bad shard address: " + addr);
+            this.addr = addr;
+            this.host = addr.substring(0, i);
+            this.port = Integer.parseInt(addr.substring(i + 1));
+        }
+
+        Socket connect() throws IOException {
+            return new Socket(host, port);
+        }
+
+        void start() {
+            Thread t = new Thread(this, "shard-" + addr);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        void stop() {
+            stopped = true;
+            Socket s = monitor;
+            if (s != null) {
+                try { s.close(); } catch (IOException ignored) {}
+            }
+        }
+
+        // 끊기면 이 샤드의 방을 목록에서 빼고 다시 붙는다
+        @Override
+        public void run() {
+            while (!stopped) {
+                try (Socket sock = connect()) {
+                    monitor = sock;
+                    if (!stopped) follow(sock);
+                } catch (IOException | RuntimeException e) {
+                    // 샤드가 아직 안 떴거나 내려감
+                }
+                directory.dropShard(this);
+
+                try {
+                    Thread.sleep(RECONNECT);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+
+        // SUBSCRIBE_ROOMS 스트림을 받아 Directory 에 반영 (Lobby 의 handleRoomEvent 와 같은 규칙)
+        private void follow(Socket sock) throws IOException {
+            Wire.Reader in = new Wire.Reader(sock.getInputStream());
+            OutputStream out = sock.getOutputStream();
+
+            if (!"ENTER_NAME".equals(in.readLine())) throw new IOException("bad handshake");
+            out.write(Wire.textLine(MONITOR_NAME + "|NONE"));
+            out.write(Wire.textLine("SUBSCRIBE_ROOMS"));
+            out.flush();
+
+            Map<String, int[]> snapshot = null;   // ROOM_SYNC ~ ROOM_SYNC_END 사이
+            long version = -1;
+            boolean resyncing = true;             // 스냅샷을 기다리는 중 (변경분 무시)
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("ROOM_SYNC ")) {
+                    snapshot = new LinkedHashMap<>();
+                    version = Long.parseLong(line.substring(10));
+                    resyncing = false;
+                }
+                else if (line.startsWith("ROOM_ENTRY ") && snapshot != null) {
+                    String[] p = line.split(" ", 4);
+                    snapshot.put(p[3], new int[]{Integer.parseInt(p[1]), Integer.parseInt(p[2])});
+                }
+                else if (line.equals("ROOM_SYNC_END") && snapshot != null) {
+                    directory.replaceShard(this, snapshot);
+                    snapshot = null;
+                }
+                else if (line.startsWith("ROOM_") && !resyncing) {
+                    String[] p = line.split(" ", line.startsWith("ROOM_REMOVED ") ? 3 : 5);
+                    long ver = Long.parseLong(p[1]);
+                    if (ver <= version) continue;       // 스냅샷에 이미 반영됨
+                    if (ver != version + 1) {           // 놓친 변경이 있음 → 다시 받기
+                        resyncing = true;
+                        out.write(Wire.textLine("SUBSCRIBE_ROOMS"));
+                        out.flush();
+                        continue;
+                    }
+                    version = ver;
+
+                    if (p[0].equals("ROOM_REMOVED"))
+                        directory.remove(this, p[2]);
+                    else
+                        directory.put(this, p[4], Integer.parseInt(p[2]), Integer.parseInt(p[3]));
+                }
+                else if (line.equals("NAME_INVALID")) {
+                    // 이전 구독 연결이 아직 정리되지 않음 → 잠시 뒤 다시
+                    throw new IOException("monitor name in use");
+                }
+            }
+        }
+    }
+
+    // ==========================
+    // 전체 방 목록 (샤드 목록을 합친 것)
+    // ==========================
+    // 내보내는 형식 / 버전 규칙은 RoomRegistry 와 같다. 같은 이름이 두 샤드에 있으면 먼저 알려진 쪽만 보인다.
+    static final class Directory {
+
+        private static final class Entry {
+            final Shard shard;
+            final long order;
+            int users;
+            int started;
+
+            Entry(Shard shard, long order) {
+                this.shard = shard;
+                this.order = order;
+            }
+        }
+
+        private final ConcurrentHashMap<String, Entry> rooms = new ConcurrentHashMap<>();
+
+        // 아래는 writeLock 으로 보호
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private long order = 0;
+        private long version = 0;
+        private Frame syncFrame;
+        private volatile Frame listFrame = Frame.lines(List.of("ROOM_END"));
+        private final Set<Connection> subscribers = ConcurrentHashMap.newKeySet();
+
+        // 방이 있는 샤드 (없으면 null, 잠금 없음)
+        Shard shardOf(String name) {
+            Entry e = rooms.get(name);
+            return (e == null) ? null : e.shard;
+        }
+
+        void put(Shard s, String name, int users, int started) {
+            writeLock.lock();
+            try {
+                putLocked(s, name, users, started);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void remove(Shard s, String name) {
+            writeLock.lock();
+            try {
+                removeLocked(s, name);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        // 샤드 스냅샷으로 그 샤드 몫을 맞춘다 (차이만 이벤트로)
+        void replaceShard(Shard s, Map<String, int[]> snapshot) {
+            writeLock.lock();
+            try {
+                for (Map.Entry<String, Entry> e : rooms.entrySet())
+                    if (e.getValue().shard == s && !snapshot.containsKey(e.getKey()))
+                        removeLocked(s, e.getKey());
+                for (Map.Entry<String, int[]> e : snapshot.entrySet())
+                    putLocked(s, e.getKey(), e.getValue()[0], e.getValue()[1]);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void dropShard(Shard s) {
+            replaceShard(s, Map.of());
+        }
+
+        Frame listFrame() {
+            return listFrame;
+        }
+
+        void subscribe(Connection c) {
+            writeLock.lock();
+            try {
+                if (syncFrame == null) syncFrame = buildSync();
+                c.send(syncFrame);
+                subscribers.add(c);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void unsubscribe(Connection c) {
+            subscribers.remove(c);
+        }
+
+        private void putLocked(Shard s, String name, int users, int started) {
+            Entry e = rooms.get(name);
+            if (e == null) {
+                e = new Entry(s, ++order);
+                e.users = users;
+                e.started = started;
+                rooms.put(name, e);
+                rebuild();
+                publish("ROOM_ADDED " + (++version) + " " + describe(name, e));
+            } else if (e.shard == s && (e.users != users || e.started != started)) {
+                e.users = users;
+                e.started = started;
+                syncFrame = null;
+                publish("ROOM_UPDATED " + (++version) + " " + describe(name, e));
+            }
+        }
+
+        private void removeLocked(Shard s, String name) {
+            Entry e = rooms.get(name);
+            if (e == null || e.shard != s) return;
+            rooms.remove(name);
+            rebuild();
+            publish("ROOM_REMOVED " + (++version) + " " + name);
+        }
+
+        private void publish(String line) {
+            if (subscribers.isEmpty()) return;
+            Frame f = Frame.text(line);
+            for (Connection c : subscribers)
+                c.send(f);
+        }
+
+        private static String describe(String name, Entry e) {
+            return e.users + " " + e.started + " " + name;
+        }
+
+        private List<Map.Entry<String, Entry>> sorted() {
+            List<Map.Entry<String, Entry>> list = new ArrayList<>(rooms.entrySet());
+            list.sort(Comparator.comparingLong(e -> e.getValue().order));
+            return list;
+        }
+
+        private void rebuild() {
+            List<String> lines = new ArrayList<>(rooms.size() + 1);
+            for (Map.Entry<String, Entry> e : sorted())
+                lines.add("ROOM " + e.getKey());
+            lines.add("ROOM_END");
+
+            listFrame = Frame.lines(lines);
+            syncFrame = null;
+        }
+
+        private Frame buildSync() {
+            List<String> lines = new ArrayList<>(rooms.size() + 2);
+            lines.add("ROOM_SYNC " + version);
+            for (Map.Entry<String, Entry> e : sorted())
+                lines.add("ROOM_ENTRY " + describe(e.getKey(), e.getValue()));
+            lines.add("ROOM_SYNC_END");
+            return Frame.lines(lines);
+        }
+    }
+
+    // ==========================
+    // 클라이언트 연결 1개
+    // ==========================
+    // 로비 단계는 메시지 단위로 해석하고, 방에 들어가면 백엔드 연결과 바이트 중계로 바뀐다.
+    // 송신은 SocketConnection 과 같이 OutboundQueue + writer 스레드.
+    static final class Session implements Runnable, Connection, Wire.Handler {
+
+        private final Socket socket;
+        private final OutboundQueue<byte[]> outbound = new OutboundQueue<>(this::close);
+
+        private Wire.Reader in;
+        private Thread writer;
+        private volatile boolean binary = false;
+        private volatile boolean closed = false;
+
+        private String name;
+        private String nameLine;           // 백엔드 핸드셰이크에 그대로 다시 보낸다
+        private WheelTimer.Timeout handshakeTimeout;
+
+        // ENTER_OK 이후 중계 대상
+        private volatile Socket backend;
+        private Wire.Reader backendIn;
+
+        Session(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try {
+                in = new Wire.Reader(socket.getInputStream());
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+
+                writer = threads.newThread(() -> writeLoop(out));
+                writer.start();
+
+                handshakeTimeout = WheelTimer.SHARED.schedule(HANDSHAKE_TIMEOUT, this::close);
+                send("ENTER_NAME");
+
+                while (backend == null && in.next(this)) { }
+                if (backend != null) relay();
+
+            } catch (IOException e) {
+                // 연결 종료
+            } finally {
+                close();
+                if (handshakeTimeout != null) handshakeTimeout.cancel();
+                directory.unsubscribe(this);
+                if (name != null) usedNames.remove(name, this);   // 넘겨준 닉네임은 그대로 둔다
+            }
+        }
+
+        private void writeLoop(OutputStream out) {
+            try {
+                while (!closed) {
+                    byte[] msg = outbound.take();
+                    do {
+                        out.write(msg);
+                    } while ((msg = outbound.poll()) != null);
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // 연결 종료
+            } finally {
+                close();
+            }
+        }
+
+        private void send(String msg) {
+            send(Frame.text(msg));
+        }
+
+        @Override
+        public void send(Frame frame) {
+            if (closed) return;
+            outbound.offer(frame.encode(binary), frame.droppable);
+        }
+
+        @Override
+        public void setBinary() {
+            binary = true;
+            in.setBinary(true);
+        }
+
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+
+            try { socket.close(); } catch (Exception ignored) {}
+            Socket b = backend;
+            if (b != null) {
+                try { b.close(); } catch (Exception ignored) {}
+            }
+            if (writer != null) writer.interrupt();
+            outbound.clear();
+        }
+
+        // ===== 로비 단계 =====
+        @Override
+        public void onLine(String line) {
+            if (name == null) {
+                handleName(line);
+                return;
+            }
+
+            if (line.equals("GET_ROOMS")) {
+                send(directory.listFrame());
+            }
+            else if (line.equals("SUBSCRIBE_ROOMS")) {
+                directory.subscribe(this);
+            }
+            else if (line.startsWith("CREATE ")) {
+                String room = line.substring(7);
+                if (directory.shardOf(room) != null) {
+                    send("MSG [SYSTEM] 이미 존재하는 방입니다.");
+                    return;
+                }
+                enter(ring.shardFor(room), line);
+            }
+            else if (line.startsWith("ENTER_ROOM ")) {
+                enter(directory.shardOf(line.substring(11)), line);
+            }
+        }
+
+        @Override
+        public void onFrame(int op, byte[] buf, int len) {
+            // 방 밖에서는 게임 프레임을 받지 않는다
+        }
+
+        private void handleName(String raw) {
+            if (raw.startsWith("RESUME ")) {
+                resume(raw.substring(7));
+                return;
+            }
+
+            // RoomServer.ClientHandler.handleName 과 같은 규칙 (검사는 여기서 전체 샤드 기준으로)
+            String[] parts = raw.split("\\|");
+
+            String n = parts[0].trim();
+            if (n.isEmpty() || n.length() > RoomServer.MAX_NAME || usedNames.putIfAbsent(n, this) != null) {
+                send("NAME_INVALID");
+                return;
+            }
+
+            name = n;
+            nameLine = raw;
+            handshakeTimeout.cancel();
+
+            if (parts.length > 2 && parts[2].equals(Wire.BIN_TOKEN)) {
+                send(Wire.PROTO_BIN);
+                setBinary();
+            }
+        }
+
+        // 샤드에 같은 닉네임 / 같은 형식으로 붙어 명령을 넘기고, 첫 응답을 그대로 전달한다
+        private void enter(Shard s, String command) {
+            if (s == null) {
+                send("MSG 방 입장 실패");
+                return;
+            }
+
+            Socket b = null;
+            try {
+                b = s.connect();
+                Wire.Reader bin = new Wire.Reader(b.getInputStream());
+                OutputStream bout = b.getOutputStream();
+
+                if (!"ENTER_NAME".equals(bin.readLine())) throw new IOException("bad handshake");
+                bout.write(Wire.textLine(nameLine));
+                if (binary) {
+                    if (!Wire.PROTO_BIN.equals(bin.readLine())) throw new IOException("name refused");
+                    bin.setBinary(true);
+                }
+
+                // 닉네임이 되면 재접속 토큰 (텍스트 모드에서 거절되면 NAME_INVALID)
+                String session = nextLine(bin);
+                if (session == null || !session.startsWith("SESSION ")) throw new IOException("name refused");
+
+                bout.write(binary ? Wire.textFrame(command) : Wire.textLine(command));
+                bout.flush();
+
+                // ENTER_OK 또는 실패 MSG
+                String reply = nextLine(bin);
+                if (reply == null) throw new IOException("closed");
+
+                if (!reply.startsWith("ENTER_OK ")) {
+                    send(reply);
+                    b.close();
+                    return;
+                }
+                send("SESSION " + s.addr + "/" + session.substring(8) + "/" + name);
+                send(reply);
+
+                // 방에 들어가면 로비 목록 구독은 끝
+                directory.unsubscribe(this);
+                backendIn = bin;
+                backend = b;
+                if (closed) b.close();
+
+            } catch (IOException e) {
+                if (b != null) {
+                    try { b.close(); } catch (IOException ignored) {}
+                }
+                send("MSG 방 입장 실패");
+            }
+        }
+
+        // raw = "host:port/토큰/닉네임"  또는  "host:port/토큰/닉네임|BIN1"
+        // 토큰을 준 샤드에 그대로 RESUME 을 넘기고 RESYNC 가 오면 중계 시작.
+        // 닉네임도 다시 잡는다 — 아직 안 닫힌 예전 세션이 쥐고 있어도 넘겨받는다 (같은 사람).
+        private void resume(String raw) {
+            String[] parts = raw.split("\\|");
+            int i = parts[0].indexOf('/');
+            int j = (i < 0) ? -1 : parts[0].indexOf('/', i + 1);
+            Shard s = (j < 0) ? null : shards.get(parts[0].substring(0, i));
+            String nick = (j < 0) ? "" : parts[0].substring(j + 1);
+            if (s == null || nick.isEmpty() || nick.length() > RoomServer.MAX_NAME) {
+                send("RESUME_FAIL");
+                return;
+            }
+            boolean bin = parts.length > 1 && parts[1].equals(Wire.BIN_TOKEN);
+
+            Socket b = null;
+            try {
+                b = s.connect();
+                Wire.Reader bIn = new Wire.Reader(b.getInputStream());
+                OutputStream bout = b.getOutputStream();
+
+                if (!"ENTER_NAME".equals(bIn.readLine())) throw new IOException("bad handshake");
+                bout.write(Wire.textLine("RESUME " + parts[0].substring(i + 1, j)
+                        + (bin ? "|" + Wire.BIN_TOKEN : "")));
+                bout.flush();
+
+                // 바이너리 요청이면 PROTO BIN1 이 먼저 (그 뒤 RESYNC 또는 RESUME_FAIL)
+                String reply = nextLine(bIn);
+                if (Wire.PROTO_BIN.equals(reply)) {
+                    bIn.setBinary(true);
+                    if (!binary) {
+                        send(Wire.PROTO_BIN);
+                        setBinary();
+                    }
+                    reply = nextLine(bIn);
+                }
+                if (reply == null || !reply.startsWith("RESYNC ")) throw new IOException("resume refused");
+
+                name = nick;
+                usedNames.put(nick, this);
+                handshakeTimeout.cancel();
+                send(reply);
+                directory.unsubscribe(this);
+                backendIn = bIn;
+                backend = b;
+                if (closed) b.close();
+
+            } catch (IOException e) {
+                if (b != null) {
+                    try { b.close(); } catch (IOException ignored) {}
+                }
+                send("RESUME_FAIL");
+            }
+        }
+
+        // ===== 방 단계: 양방향 바이트 중계 =====
+        // 백엔드에서 읽은 덩어리(최대 8KB)를 메시지 경계와 상관없이 그대로 넣는다.
+        //   덩어리 하나만 빠져도 텍스트 / 바이너리 틀이 깨져 되돌릴 수 없으므로 outPolicy 와 상관없이 넘치면 끊는다
+        //   (클라이언트는 RESUME 으로 돌아온다). 이때 대기열 깊이는 메시지 수가 아니라 덩어리 수다.
+        private void relay() throws IOException {
+            InputStream fromBackend = backendIn.stream();
+            Thread pump = threads.newThread(() -> {
+                byte[] buf = new byte[8192];
+                try {
+                    int n;
+                    while ((n = fromBackend.read(buf)) > 0)
+                        outbound.offer(Arrays.copyOf(buf, n), false);
+                } catch (IOException e) {
+                    // 백엔드 종료
+                } finally {
+                    close();
+                }
+            });
+            pump.start();
+
+            in.stream().transferTo(backend.getOutputStream());
+        }
+    }
+}
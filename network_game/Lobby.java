@@ -2,25 +2,30 @@ package network_game;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.*;
+import java.io.IOException;
 import java.net.Socket;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 
 public class Lobby extends JFrame {
 
     private JTextField roomTitleInput;
     private JPanel roomListPanel;
 
-    private Socket socket;
-    private PrintWriter out;
-    private BufferedReader in;
+    private WireSocket ws;
 
-    private final ArrayList<String> rooms = new ArrayList<>();
+    // 방 이름 → {인원, 시작 0/1}  (수신 스레드에서만 고친다)
+    private final LinkedHashMap<String, int[]> rooms = new LinkedHashMap<>();
+    private long roomVersion = -1;   // 마지막으로 반영한 목록 버전
     private final String userName;
 
     private Thread receiveThread;
     private volatile boolean enteringRoom = false;
 
+    // 핸드셰이크 뒤 서버가 준 재접속 토큰 (게임방에서 끊기면 이걸로 같은 좌석에 다시 붙는다)
+    private String session;
+
     private String selectedBadge;
     
     
@@ -28,6 +33,10 @@ public class Lobby extends JFrame {
     private static final String SERVER_IP = "223.194.153.40";
 	private static final int SERVER_PORT = 5001;
 
+    // 바이너리 프로토콜 요청 여부 (-Dcardgame.binary=false 로 끄기)
+    private static final boolean USE_BINARY =
+            Boolean.parseBoolean(System.getProperty("cardgame.binary", "true"));
+
     // ★ 추가: 입장 시 선택된 방 이름
     private String enteringRoomName;
 
@@ -44,7 +53,8 @@ public class Lobby extends JFrame {
         buildGUI();
         startReceiveThread();
 
-        sendMessage("GET_ROOMS");
+        // 한 번 구독하면 이후 변경분만 온다
+        sendMessage("SUBSCRIBE_ROOMS");
         setVisible(true);
     }
 
@@ -58,17 +68,36 @@ public class Lobby extends JFrame {
     private void connectServer() {
         try {
         	
-            socket = new Socket(SERVER_IP, SERVER_PORT);
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            ws = new WireSocket(new Socket(SERVER_IP, SERVER_PORT));
 
-            String req = in.readLine();
+            String req = ws.readLine();
             if (!"ENTER_NAME".equals(req)) {
                 throw new IOException("Invalid handshake: " + req);
             }
 
-            out.println(userName + "|" + selectedBadge);
-            connected = true;
+            if (!USE_BINARY) {
+                ws.sendLine(userName + "|" + selectedBadge);
+                connected = true;
+                return;
+            }
+
+            // 바이너리 요청 시 서버가 바로 응답한다 (PROTO BIN1 또는 NAME_INVALID)
+            ws.sendLine(userName + "|" + selectedBadge + "|" + Wire.BIN_TOKEN);
+            String reply = ws.readLine();
+            if (Wire.PROTO_BIN.equals(reply)) {
+                ws.setBinary();
+                connected = true;
+            } else if ("NAME_INVALID".equals(reply)) {
+                JOptionPane.showMessageDialog(
+                        this,
+                        "이미 사용 중인 닉네임입니다.",
+                        "닉네임 오류",
+                        JOptionPane.ERROR_MESSAGE
+                );
+                cleanup();
+            } else {
+                throw new IOException("Invalid handshake: " + reply);
+            }
 
         } catch (IOException e) {
             JOptionPane.showMessageDialog(this, "서버 연결 실패: " + e.getMessage());
@@ -146,7 +175,12 @@ public class Lobby extends JFrame {
     }
 
     private void sendMessage(String msg) {
-        if (out != null) out.println(msg);
+        if (ws == null) return;
+        try {
+            ws.sendLine(msg);
+        } catch (IOException e) {
+            System.out.println("전송 실패: " + e.getMessage());
+        }
     }
 
     // ================= 수신 스레드 =================
@@ -159,16 +193,14 @@ public class Lobby extends JFrame {
     private void receiveLoop() {
         try {
             String msg;
-            while ((msg = in.readLine()) != null) {
+            while ((msg = ws.readLine()) != null) {
 
-                if (msg.startsWith("ROOM ")) {
-                    String roomName = msg.substring(5);
-                    if (!rooms.contains(roomName)) rooms.add(roomName);
-                    updateRoomList();
+                if (msg.startsWith("ROOM_")) {
+                    handleRoomEvent(msg);
                 }
 
-                else if (msg.equals("ROOM_END")) {
-                    // ignore
+                else if (msg.startsWith("SESSION ")) {
+                    session = msg.substring(8);
                 }
 
                 else if (msg.equals("NAME_INVALID")) {
@@ -196,7 +228,7 @@ public class Lobby extends JFrame {
                     SwingUtilities.invokeLater(() -> {
                         dispose();
                         try {
-                            new Room(roomName, userName, socket);
+                            new Room(roomName, userName, ws, session);
                         } catch (Exception e) {
                             e.printStackTrace();
                         }
@@ -210,7 +242,7 @@ public class Lobby extends JFrame {
                     SwingUtilities.invokeLater(() -> {
                         dispose();
                         try {
-                            new Room(roomName, userName, socket);
+                            new Room(roomName, userName, ws, session);
                         } catch (Exception e) {
                             e.printStackTrace();
                         }
@@ -227,22 +259,63 @@ public class Lobby extends JFrame {
         }
     }
 
+    // ================= 방 목록 구독 =================
+    // ROOM_SYNC <ver> / ROOM_ENTRY ... / ROOM_SYNC_END  : 전체 스냅샷
+    // ROOM_ADDED|ROOM_UPDATED <ver> <인원> <시작> <이름>, ROOM_REMOVED <ver> <이름> : 변경분
+    private void handleRoomEvent(String msg) {
+        if (msg.startsWith("ROOM_SYNC ")) {
+            rooms.clear();
+            roomVersion = Long.parseLong(msg.substring(10));
+        }
+        else if (msg.startsWith("ROOM_ENTRY ")) {
+            String[] p = msg.split(" ", 4);
+            rooms.put(p[3], new int[]{Integer.parseInt(p[1]), Integer.parseInt(p[2])});
+        }
+        else if (msg.equals("ROOM_SYNC_END")) {
+            updateRoomList();
+        }
+        else {
+            String[] p = msg.split(" ", msg.startsWith("ROOM_REMOVED ") ? 3 : 5);
+            long ver = Long.parseLong(p[1]);
+            if (ver <= roomVersion) return;        // 스냅샷에 이미 반영됨
+            if (ver != roomVersion + 1) {          // 놓친 변경이 있음 → 다시 받기
+                sendMessage("SUBSCRIBE_ROOMS");
+                return;
+            }
+            roomVersion = ver;
+
+            if (p[0].equals("ROOM_REMOVED"))
+                rooms.remove(p[2]);
+            else
+                rooms.put(p[4], new int[]{Integer.parseInt(p[2]), Integer.parseInt(p[3])});
+            updateRoomList();
+        }
+    }
+
     // ================= 방 목록 UI =================
     private void updateRoomList() {
+        List<String> names = new ArrayList<>(rooms.keySet());
+        List<int[]> states = new ArrayList<>(rooms.values());
+
         SwingUtilities.invokeLater(() -> {
             roomListPanel.removeAll();
 
-            for (String r : rooms) {
+            for (int i = 0; i < names.size(); i++) {
+                String r = names.get(i);
+                int[] st = states.get(i);
+
                 JPanel roomBox = new JPanel(null);
                 roomBox.setPreferredSize(new Dimension(400, 90));
                 roomBox.setBackground(Color.WHITE);
 
-                JLabel name = new JLabel("방 제목: " + r);
-                name.setBounds(20, 10, 300, 20);
+                JLabel name = new JLabel("방 제목: " + r + "  (" + st[0] + "/4)"
+                        + (st[1] != 0 ? "  게임 중" : ""));
+                name.setBounds(20, 10, 380, 20);
                 roomBox.add(name);
 
                 JButton joinBtn = new JButton("참여하기");
                 joinBtn.setBounds(140, 45, 130, 30);
+                joinBtn.setEnabled(st[0] < 4 && st[1] == 0);
                 joinBtn.addActionListener(e -> requestJoinRoom(r));
                 roomBox.add(joinBtn);
 
@@ -255,7 +328,7 @@ public class Lobby extends JFrame {
     }
 
     private void cleanup() {
-        try { socket.close(); } catch (Exception ignored) {}
+        if (ws != null) ws.close();
         dispose();
     }
 }
@@ -0,0 +1,79 @@
+package network_game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 방 하나의 작업 대기열 (단일 작성자 / actor 방식)
+// 방 상태를 바꾸는 일(입장, 퇴장, 게임 시작, PLAY, 시간 초과)은 모두 tell() 로 넣고,
+// 공유 실행기가 방마다 한 번에 한 스레드만 꺼내 실행한다 → 방 상태에는 잠금이 필요 없다.
+// 서로 다른 방은 여러 코어에서 동시에 돈다.
+//
+// 작업 안에서는 송신 대기열에 넣기만 하고 (OutboundQueue) 소켓 I/O 는 하지 않는다.
+// 한 번 실행될 때 BATCH 개까지만 처리하고 양보한다 (바쁜 방이 실행기를 독차지하지 않도록).
+//
+//   -Droomserver.roomThreads=<코어 수>
+final class Mailbox implements Runnable {
+
+    static final int THREADS = Integer.getInteger(
+            "roomserver.roomThreads", Runtime.getRuntime().availableProcessors());
+
+    private static final int BATCH = 64;
+
+    static final ExecutorService SHARED = Executors.newFixedThreadPool(THREADS, new ThreadFactory() {
+        private final AtomicInteger n = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "room-" + n.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Executor executor;
+
+    Mailbox() {
+        this(SHARED);
+    }
+
+    Mailbox(Executor executor) {
+        this.executor = executor;
+    }
+
+    // 어느 스레드에서든 호출 가능. 넣은 순서대로 실행된다
+    void tell(Runnable task) {
+        queue.offer(task);
+        if (scheduled.compareAndSet(false, true))
+            executor.execute(this);
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < BATCH; i++) {
+            Runnable task = queue.poll();
+            if (task == null) break;
+            try {
+                task.run();
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+
+        // 내려놓은 뒤 그 사이 들어온 게 있으면 다시 예약
+        scheduled.set(false);
+        if (!queue.isEmpty() && scheduled.compareAndSet(false, true))
+            executor.execute(this);
+    }
+}
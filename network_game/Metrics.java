@@ -0,0 +1,227 @@
+package network_game;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// 서버 지표 + 관리 포트
+// 기록은 모두 잠금 없이 한다: 카운터 = LongAdder, 지연 시간 = Histogram (버킷 배열 원자 증가).
+// 값을 모아 계산하는 건 긁어 가는 쪽(관리 포트 스레드)뿐이라, 긁는 중에 기록이 들어와도 기다리지 않는다.
+//
+//   -Droomserver.adminPort=<포트>   기본 = 게임 포트 + 1000, 0 이면 끔 (127.0.0.1 에만 연다)
+//   curl -s localhost:6001   또는   nc localhost 6001
+//
+// 형식은 Prometheus 텍스트 형식과 같은 모양 (한 줄에 이름{라벨} 값, _total = 누적값)
+//   roomserver_commands_total{verb="PLAY"} 123
+//   roomserver_rooms 4
+//   roomserver_latency_seconds{op="play",quantile="0.99"} 0.000412
+final class Metrics {
+
+    // ===== 명령 수 =====
+    static final LongAdder play = new LongAdder();
+    static final LongAdder playRejected = new LongAdder();   // 규칙 위반 / 게임 밖 PLAY
+    static final LongAdder chatAll = new LongAdder();
+    static final LongAdder chatTeam = new LongAdder();
+    static final LongAdder create = new LongAdder();
+    static final LongAdder enterRoom = new LongAdder();
+    static final LongAdder resume = new LongAdder();
+    static final LongAdder resumeFailed = new LongAdder();   // 토큰 없음 / 좌석이 이미 비었음
+
+    // ===== 지연 시간: 줄(프레임)을 읽은 시각 → 마지막 브로드캐스트를 송신 대기열에 넣은 시각 =====
+    // 방 mailbox 대기 시간이 포함된다. 소켓 쓰기는 연결의 writer 가 따로 하므로 포함되지 않는다.
+    static final Histogram playLatency = new Histogram();
+    static final Histogram chatLatency = new Histogram();
+    static final Histogram enterLatency = new Histogram();
+
+    // 서버가 시작할 때 등록 (방 수, 타이머, journal 등 다른 곳에 있는 값)
+    private static final List<Gauge> gauges = new CopyOnWriteArrayList<>();
+
+    private record Gauge(String name, LongSupplier value) {}
+
+    private Metrics() {}
+
+    static void gauge(String name, LongSupplier value) {
+        gauges.add(new Gauge(name, value));
+    }
+
+    // ==========================
+    // 텍스트로 내보내기
+    // ==========================
+    static String scrape() {
+        StringBuilder sb = new StringBuilder(2048);
+
+        line(sb, "roomserver_commands_total{verb=\"PLAY\"}", play.sum());
+        line(sb, "roomserver_commands_total{verb=\"ALL\"}", chatAll.sum());
+        line(sb, "roomserver_commands_total{verb=\"TEAM\"}", chatTeam.sum());
+        line(sb, "roomserver_commands_total{verb=\"CREATE\"}", create.sum());
+        line(sb, "roomserver_commands_total{verb=\"ENTER_ROOM\"}", enterRoom.sum());
+        line(sb, "roomserver_commands_total{verb=\"RESUME\"}", resume.sum());
+        line(sb, "roomserver_play_rejected_total", playRejected.sum());
+        line(sb, "roomserver_resume_failed_total", resumeFailed.sum());
+
+        for (Gauge g : gauges)
+            line(sb, g.name, g.value.getAsLong());
+
+        playLatency.writeTo(sb, "roomserver_latency_seconds", "play");
+        chatLatency.writeTo(sb, "roomserver_latency_seconds", "chat");
+        enterLatency.writeTo(sb, "roomserver_latency_seconds", "enter");
+        return sb.toString();
+    }
+
+    private static void line(StringBuilder sb, String name, long value) {
+        sb.append(name).append(' ').append(value).append('\n');
+    }
+
+    // ==========================
+    // 관리 포트
+    // ==========================
+    static void serve(int port) {
+        if (port <= 0) return;
+
+        Thread t = new Thread(() -> {
+            try (ServerSocket serverSocket = new ServerSocket(port, 16, InetAddress.getLoopbackAddress())) {
+                System.out.println("관리 포트 " + port);
+                while (true) {
+                    try (Socket s = serverSocket.accept()) {
+                        respond(s);
+                    } catch (IOException e) {
+                        // 요청 하나 실패
+                    }
+                }
+            } catch (IOException e) {
+                System.out.println("[WARN] 관리 포트 " + port + " 열기 실패: " + e.getMessage());
+            }
+        }, "metrics-admin");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // HTTP GET 이면 응답 헤더를 붙이고, 아무것도 보내지 않는 연결(nc)에는 본문만 보낸다
+    private static void respond(Socket s) throws IOException {
+        s.setSoTimeout(200);
+
+        boolean http = false;
+        try {
+            BufferedReader br = new BufferedReader(
+                    new InputStreamReader(s.getInputStream(), StandardCharsets.US_ASCII));
+            String first = br.readLine();
+            http = first != null && first.startsWith("GET ");
+            String h;
+            while (http && (h = br.readLine()) != null && !h.isEmpty()) { }
+        } catch (SocketTimeoutException e) {
+            // 요청 없음
+        }
+
+        byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+        OutputStream out = s.getOutputStream();
+        if (http)
+            out.write(("HTTP/1.0 200 OK\r\nContent-Type: text/plain; version=0.0.4\r\nContent-Length: "
+                    + body.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(body);
+        out.flush();
+    }
+
+    // ==========================
+    // 지연 시간 히스토그램 (나노초)
+    // ==========================
+    // 2배 구간마다 SUB 칸으로 나눈 로그-선형 버킷 → 오차 1/SUB (12.5%) 이내, 크기 고정 (488칸).
+    // 기록 = 버킷 하나 원자 증가 + 합계 + 최대값 CAS. 잠금 / 할당 없음.
+    static final class Histogram {
+
+        private static final int SUB_BITS = 3;
+        private static final int SUB = 1 << SUB_BITS;
+        private static final int BUCKETS = (64 - SUB_BITS) * SUB;
+
+        private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            counts.incrementAndGet(index(nanos));
+            sum.add(nanos);
+
+            long m = max.get();
+            while (nanos > m && !max.compareAndSet(m, nanos))
+                m = max.get();
+        }
+
+        void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        static int index(long v) {
+            if (v < SUB) return (int) v;
+            int e = 63 - Long.numberOfLeadingZeros(v);
+            int sub = (int) (v >>> (e - SUB_BITS)) & (SUB - 1);
+            return (e - SUB_BITS + 1) * SUB + sub;
+        }
+
+        // 버킷 i 의 가장 작은 값
+        static long lowerBound(int i) {
+            if (i < SUB) return i;
+            int e = i / SUB + SUB_BITS - 1;
+            return (long) (SUB + i % SUB) << (e - SUB_BITS);
+        }
+
+        // q 분위수 (그 버킷의 상한, 최대값을 넘지 않게)
+        private long quantile(long[] snapshot, long total, double q) {
+            long rank = Math.max(1, (long) Math.ceil(q * total));
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    long upper = (i + 1 < BUCKETS) ? lowerBound(i + 1) - 1 : Long.MAX_VALUE;
+                    return Math.min(upper, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        // 지금까지 기록된 값의 q 분위수 (기록이 없으면 0)
+        long quantile(double q) {
+            long[] snapshot = snapshot();
+            long total = 0;
+            for (long c : snapshot) total += c;
+            return (total == 0) ? 0 : quantile(snapshot, total, q);
+        }
+
+        private long[] snapshot() {
+            long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) snapshot[i] = counts.get(i);
+            return snapshot;
+        }
+
+        void writeTo(StringBuilder sb, String name, String op) {
+            long[] snapshot = snapshot();
+            long total = 0;
+            for (long c : snapshot) total += c;
+
+            String label = "{op=\"" + op + "\"";
+            if (total > 0) {
+                for (double q : QUANTILES)
+                    sb.append(name).append(label).append(",quantile=\"").append(q).append("\"} ")
+                            .append(seconds(quantile(snapshot, total, q))).append('\n');
+            }
+            sb.append(name).append("_max").append(label).append("} ").append(seconds(max.get())).append('\n');
+            sb.append(name).append("_sum").append(label).append("} ").append(seconds(sum.sum())).append('\n');
+            sb.append(name).append("_count").append(label).append("} ").append(total).append('\n');
+        }
+
+        private static String seconds(long nanos) {
+            return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+        }
+    }
+}
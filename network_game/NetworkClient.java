@@ -1,33 +1,438 @@
 package network_game;
 
-import java.io.*;
-import java.net.*;
-import java.util.function.Consumer;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
 
+// 헤드리스 봇 부하 생성기 (GUI 없이 실제 프로토콜로 RoomServer / Gateway 에 붙는다)
+//
+//   java network_game.NetworkClient 2000                      → 봇 2000개, 127.0.0.1:5001
+//   java -Dswarm.think=150 -Dswarm.chat=2000 network_game.NetworkClient 4000 10.0.0.5 5001
+//
+// 봇 4개가 한 조: 조장이 CREATE, 나머지가 ENTER_ROOM (방이 생길 때까지 재시도) → 4명이 차면 게임 시작.
+// 게임 중에는 think 시간마다 손패와 중앙 카드로 낼 수 있는 카드를 하나 골라 PLAY, 가끔 ALL 채팅.
+// 게임이 끝나면 연결을 끊고 새 닉네임으로 다시 붙어 다음 판 (연결 수립도 계속 부하에 포함된다).
+//
+// 지연 시간 = PLAY 를 보낸 시각 → 그 카드의 결과 STATE (낸 사람 손패 변화가 실린 것) 를 받은 시각.
+//   카드 1장의 결과는 예전에는 CENTER 로 왔고 지금은 STATE 한 개로 온다.
+//   다른 봇이 먼저 그 자리에 내서 거절되면 서버가 PLAY_REJECT 로 답하고, 봇은 바로 다음 카드를 고른다.
+//   ackTimeout 은 답이 아예 없을 때의 안전장치 (이때도 거절로 센다).
+//
+// 설정 (-D)
+//   swarm.duration=60      초
+//   swarm.think=300        ms, 카드 내기 간격 (±50% 무작위)
+//   swarm.chat=5000        ms, 봇마다 평균 채팅 간격 (0 = 채팅 안 함)
+//   swarm.binary=true      바이너리 프로토콜 사용
+//   swarm.ramp=0           ms, 봇 시작을 이 시간에 걸쳐 나눔
+//   swarm.ackTimeout=2000  ms
+//   swarm.joinTimeout=10000 ms, 조원이 다 모이지 않으면 그 판을 포기
+//
+// 봇마다 가상 스레드 2개 (수신 / 행동). 수천 개를 띄우려면 ulimit -n 도 늘릴 것.
 public class NetworkClient {
 
-    private Socket socket;
-    private PrintWriter out;
-    private BufferedReader in;
+    private static final long DURATION = Long.getLong("swarm.duration", 60) * 1000;
+    private static final int THINK = Integer.getInteger("swarm.think", 300);
+    private static final int CHAT = Integer.getInteger("swarm.chat", 5_000);
+    private static final boolean BINARY =
+            Boolean.parseBoolean(System.getProperty("swarm.binary", "true"));
+    private static final long RAMP = Long.getLong("swarm.ramp", 0);
+    private static final long ACK_TIMEOUT = Long.getLong("swarm.ackTimeout", 2_000);
+    private static final long JOIN_TIMEOUT = Long.getLong("swarm.joinTimeout", 10_000);
+    private static final long REPORT = 5_000;
 
-    public NetworkClient(String host, int port,
-                         Consumer<String> onMessage) throws Exception {
+    private static final ThreadFactory threads = Thread.ofVirtual().name("bot-", 0).factory();
 
-        socket = new Socket(host, port);
-        out = new PrintWriter(socket.getOutputStream(), true);
-        in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+    // ===== 집계 (모든 봇 공용, 잠금 없음) =====
+    private static final LongAdder connects = new LongAdder();
+    private static final LongAdder connectFails = new LongAdder();
+    private static final LongAdder games = new LongAdder();
+    private static final LongAdder plays = new LongAdder();
+    private static final LongAdder rejected = new LongAdder();
+    private static final LongAdder chats = new LongAdder();
+    private static final Metrics.Histogram playLatency = new Metrics.Histogram();
 
-        new Thread(() -> {
+    public static void main(String[] args) throws InterruptedException {
+        // 실행 인자: [봇 수] [host] [port]
+        int bots = (args.length > 0) ? Integer.parseInt(args[0]) : 400;
+        String host = (args.length > 1) ? args[1] : "127.0.0.1";
+        int port = (args.length > 2) ? Integer.parseInt(args[2]) : 5001;
+        bots = (bots + 3) / 4 * 4;   // 4명 단위
+
+        System.out.println("봇 " + bots + "개 → " + host + ":" + port + " (" + DURATION / 1000 + "초, think "
+                + THINK + "ms, chat " + CHAT + "ms, " + (BINARY ? "binary" : "text") + ")");
+
+        long start = System.currentTimeMillis();
+        long deadline = start + DURATION;
+        for (int i = 0; i < bots; i++) {
+            threads.newThread(new Bot(i, host, port, deadline)).start();
+            if (RAMP > 0) Thread.sleep(RAMP / bots);
+        }
+
+        long[] last = new long[3];
+        long lastAt = start;
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(Math.min(REPORT, Math.max(1, deadline - System.currentTimeMillis())));
+            long now = System.currentTimeMillis();
+            report(now - start, now - lastAt, last);
+            lastAt = now;
+        }
+
+        System.out.println("== 합계");
+        double sec = (System.currentTimeMillis() - start) / 1000.0;
+        System.out.printf("  연결 %d (%.0f/s, 실패 %d)  게임 %d (%.2f/s)  PLAY %d (%.0f/s, 거절 %d)  채팅 %d%n",
+                connects.sum(), connects.sum() / sec, connectFails.sum(),
+                games.sum(), games.sum() / sec,
+                plays.sum(), plays.sum() / sec, rejected.sum(), chats.sum());
+        System.out.println("  PLAY→STATE " + latency());
+        System.exit(0);
+    }
+
+    // 구간 처리량 + 누적 지연 분위수
+    private static void report(long elapsed, long interval, long[] last) {
+        long c = connects.sum();
+        long g = games.sum();
+        long p = plays.sum();
+        double sec = interval / 1000.0;
+
+        System.out.printf("%4ds  연결 %d (%.0f/s)  게임 %d (%.2f/s)  PLAY %d (%.0f/s, 거절 %d)  %s%n",
+                elapsed / 1000,
+                c, (c - last[0]) / sec,
+                g, (g - last[1]) / sec,
+                p, (p - last[2]) / sec, rejected.sum(),
+                latency());
+        last[0] = c;
+        last[1] = g;
+        last[2] = p;
+    }
+
+    private static String latency() {
+        return String.format("p50 %.2fms  p99 %.2fms  p999 %.2fms",
+                playLatency.quantile(0.5) / 1e6,
+                playLatency.quantile(0.99) / 1e6,
+                playLatency.quantile(0.999) / 1e6);
+    }
+
+    // ==========================
+    // 봇 1개
+    // ==========================
+    static final class Bot implements Runnable, Wire.Handler {
+
+        private final int id;
+        private final int group;
+        private final boolean leader;   // 조장: 방을 만들고 게임 수를 센다
+        private final String host;
+        private final int port;
+        private final long deadline;
+        private final SplittableRandom rng;
+
+        private WireSocket ws;
+
+        // 게임 상태 (수신 스레드가 고치고 행동 스레드가 읽는다 → this 로 동기화)
+        private final byte[] handCount = new byte[Card.COUNT];
+        private long handBits;
+        private final int[] center = new int[2];
+        private boolean playing;
+        private volatile boolean over;
+        private long pendingSince;   // 결과를 기다리는 PLAY 를 보낸 시각 (0 = 없음)
+
+        Bot(int id, String host, int port, long deadline) {
+            this.id = id;
+            this.group = id / 4;
+            this.leader = id % 4 == 0;
+            this.host = host;
+            this.port = port;
+            this.deadline = deadline;
+            this.rng = new SplittableRandom(id);
+        }
+
+        @Override
+        public void run() {
+            for (int round = 0; System.currentTimeMillis() < deadline; round++) {
+                try {
+                    playRound(round);
+                } catch (IOException e) {
+                    // 끊김 / 입장 실패 → 다음 판
+                } finally {
+                    if (ws != null) ws.close();
+                }
+            }
+        }
+
+        private void playRound(int round) throws IOException {
+            reset();
             try {
-                String line;
-                while ((line = in.readLine()) != null) {
-                    onMessage.accept(line);
+                ws = new WireSocket(new Socket(host, port));
+            } catch (IOException e) {
+                connectFails.increment();
+                sleep(200);
+                throw e;
+            }
+            connects.increment();
+
+            // ===== 핸드셰이크 =====
+            if (!"ENTER_NAME".equals(ws.readLine())) throw new IOException("bad handshake");
+            String name = "b" + id + "r" + round;
+            if (BINARY) {
+                ws.sendLine(name + "|NONE|" + Wire.BIN_TOKEN);
+                if (!Wire.PROTO_BIN.equals(ws.readLine())) throw new IOException("name refused");
+                ws.setBinary();
+            } else {
+                ws.sendLine(name + "|NONE");
+            }
+
+            // ===== 조 단위로 같은 방 =====
+            join("swarm-" + group + "-" + round);
+
+            Thread actor = threads.newThread(this::act);
+            actor.start();
+            try {
+                while (!over && ws.next(this)) { }
+            } finally {
+                // 행동 스레드가 다음 판 소켓을 건드리지 않도록 여기서 끝낸다
+                over = true;
+                actor.interrupt();
+                try {
+                    actor.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 }
-            } catch (Exception e) {}
-        }).start();
-    }
+            }
+        }
+
+        private void join(String room) throws IOException {
+            long giveUp = System.currentTimeMillis() + JOIN_TIMEOUT;
+            ws.sendLine((leader ? "CREATE " : "ENTER_ROOM ") + room);
+            while (true) {
+                String reply = ws.readLine();
+                if (reply == null) throw new IOException("closed");
+                if (reply.startsWith("ENTER_OK ")) return;
+
+                if (reply.startsWith("MSG 방 입장 실패") && !leader
+                        && System.currentTimeMillis() < giveUp) {
+                    // 조장이 아직 방을 안 만듦
+                    sleep(50);
+                    ws.sendLine("ENTER_ROOM " + room);
+                } else if (reply.startsWith("MSG ")) {
+                    throw new IOException(reply);
+                }
+            }
+        }
 
-    public void send(String msg) {
-        out.println(msg);
+        private synchronized void reset() {
+            Arrays.fill(handCount, (byte) 0);
+            handBits = 0;
+            center[0] = center[1] = -1;
+            playing = false;
+            over = false;
+            pendingSince = 0;
+        }
+
+        // ===== 행동 (think 시간마다) =====
+        private void act() {
+            long joinedAt = System.currentTimeMillis();
+            long nextChat = joinedAt + nextChatDelay();
+
+            while (!over) {
+                sleep(THINK / 2 + rng.nextInt(THINK + 1));
+                long now = System.currentTimeMillis();
+
+                try {
+                    // 무엇을 낼지만 잠금 안에서 정하고, 소켓 쓰기는 잠금 밖에서
+                    // (가상 스레드가 모니터 안에서 블로킹하면 캐리어 스레드를 붙잡는다)
+                    String play = null;
+                    synchronized (this) {
+                        if (!playing) {
+                            // 조원이 다 안 모임 → 이 판 포기
+                            if (now - joinedAt > JOIN_TIMEOUT) ws.close();
+                            continue;
+                        }
+                        if (pendingSince != 0 && System.nanoTime() - pendingSince > ACK_TIMEOUT * 1_000_000) {
+                            rejected.increment();
+                            pendingSince = 0;
+                        }
+                        if (pendingSince == 0) play = choosePlay();
+                    }
+                    if (play != null) ws.sendLine(play);
+
+                    if (CHAT > 0 && now >= nextChat) {
+                        ws.sendLine("ALL gg " + id);
+                        chats.increment();
+                        nextChat = now + nextChatDelay();
+                    }
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        // 낼 수 있는 카드 중 아무거나 골라 PLAY 줄로 (양쪽 다 없으면 null → 서버가 보조 더미를 뒤집을 때까지 기다림)
+        // pendingSince 는 보내기 전에 잠금 안에서 찍는다 (결과 STATE 가 먼저 와도 짝이 맞게)
+        private String choosePlay() {
+            int first = rng.nextInt(2);
+            for (int k = 0; k < 2; k++) {
+                int side = first ^ k;
+                if (center[side] < 0) continue;
+                long playable = handBits & Card.adjacent(center[side]);
+                if (playable == 0) continue;
+
+                int skip = rng.nextInt(Long.bitCount(playable));
+                for (int i = 0; i < skip; i++) playable &= playable - 1;
+                int card = Long.numberOfTrailingZeros(playable);
+
+                pendingSince = System.nanoTime();
+                return "PLAY " + Card.nameOf(card) + " " + Wire.side(side);
+            }
+            return null;
+        }
+
+        private long nextChatDelay() {
+            if (CHAT <= 0) return Long.MAX_VALUE / 2;
+            // 지수 분포 (평균 CHAT) → 봇들의 채팅이 한꺼번에 몰리지 않게
+            return (long) (-Math.log(1 - rng.nextDouble()) * CHAT);
+        }
+
+        // ===== 수신 (텍스트) =====
+        @Override
+        public void onLine(String line) {
+            if (line.equals("GAME_START")) {
+                started();
+            }
+            else if (line.equals("PLAY_REJECT")) {
+                rejectedPlay();
+            }
+            else if (line.startsWith("HAND ")) {
+                // HAND nick c1,c2,... (자기 것만 옴)
+                String[] p = line.split(" ", 3);
+                setHand(p.length == 3 ? p[2].split(",") : new String[0]);
+            }
+            else if (line.startsWith("CENTER ")) {
+                String[] p = line.split(" ");
+                setCenter(Wire.side(p[1]), p[2].equals("NONE") ? -1 : Card.fromString(p[2]).ordinal());
+            }
+            else if (line.startsWith("STATE ")) {
+                // STATE side card t el er sl sr winner [H:seq:cards | D:seq:removed:drawn]
+                String[] p = line.split(" ");
+                synchronized (this) {
+                    center[Wire.side(p[1])] = Card.fromString(p[2]).ordinal();
+                    if (p.length > 9) {
+                        String[] h = p[9].split(":", -1);
+                        if (h[0].equals("H")) {
+                            setHand(h[2].isEmpty() ? new String[0] : h[2].split(","));
+                        } else {
+                            remove(Card.fromString(h[2]).ordinal());
+                            if (!h[3].equals("-")) add(Card.fromString(h[3]).ordinal());
+                        }
+                        echoed();
+                    }
+                }
+                if (!p[8].equals("-")) finished();
+            }
+            else if (line.startsWith("GAME_OVER ")) {
+                finished();
+            }
+        }
+
+        // ===== 수신 (바이너리) =====
+        @Override
+        public void onFrame(int op, byte[] buf, int len) {
+            switch (op) {
+                case Wire.OP_GAME_START:
+                    started();
+                    break;
+                case Wire.OP_CENTER: {
+                    int c = buf[2] & 0xFF;
+                    setCenter(buf[1], c == Wire.NO_CARD ? -1 : c);
+                    break;
+                }
+                case Wire.OP_HAND:
+                    synchronized (this) {
+                        clearHand();
+                        for (int i = 0; i < buf[2]; i++) add(buf[3 + i] & 0xFF);
+                    }
+                    break;
+                case Wire.OP_STATE: {
+                    synchronized (this) {
+                        center[buf[1]] = buf[2] & 0xFF;
+                        int mode = buf[9] & 0xFF;
+                        if (mode == Wire.HAND_FULL) {
+                            clearHand();
+                            for (int i = 0; i < buf[11]; i++) add(buf[12 + i] & 0xFF);
+                            echoed();
+                        } else if (mode == Wire.HAND_DELTA) {
+                            remove(buf[11] & 0xFF);
+                            int d = buf[12] & 0xFF;
+                            if (d != Wire.NO_CARD) add(d);
+                            echoed();
+                        }
+                    }
+                    if (buf[8] != 0) finished();
+                    break;
+                }
+                case Wire.OP_GAME_OVER:
+                    finished();
+                    break;
+                default:
+            }
+        }
+
+        private synchronized void started() {
+            playing = true;
+        }
+
+        private synchronized void rejectedPlay() {
+            if (pendingSince == 0) return;   // 이미 ackTimeout 으로 센 것
+            rejected.increment();
+            pendingSince = 0;
+        }
+
+        private synchronized void setCenter(int side, int card) {
+            center[side] = card;
+        }
+
+        private synchronized void setHand(String[] cards) {
+            clearHand();
+            for (String c : cards) add(Card.fromString(c).ordinal());
+        }
+
+        // 내 PLAY 의 결과 (손패 변화는 낸 사람에게만 온다)
+        private void echoed() {
+            if (pendingSince == 0) return;
+            playLatency.record(System.nanoTime() - pendingSince);
+            plays.increment();
+            pendingSince = 0;
+        }
+
+        private void finished() {
+            if (over) return;
+            over = true;
+            if (leader) games.increment();
+            ws.close();
+        }
+
+        private void clearHand() {
+            Arrays.fill(handCount, (byte) 0);
+            handBits = 0;
+        }
+
+        private void add(int c) {
+            handCount[c]++;
+            handBits |= 1L << c;
+        }
+
+        private void remove(int c) {
+            if (handCount[c] > 0 && --handCount[c] == 0)
+                handBits &= ~(1L << c);
+        }
+
+        private static void sleep(long ms) {
+            try {
+                Thread.sleep(ms);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 }
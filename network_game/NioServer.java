@@ -0,0 +1,288 @@
+package network_game;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Selector 기반 서버 엔진
+// 고정된 개수의 I/O 루프가 모든 연결을 나눠서 처리한다.
+// 프로토콜 처리는 ClientHandler 를 그대로 사용한다. (줄 단위 텍스트)
+class NioServer {
+
+    private static final int READ_BUF = 4096;
+    private static final int MAX_LINE = 8192;
+
+    private final int port;
+    private final IoLoop[] loops;
+    private int next = 0;
+
+    NioServer(int port, int loopCount) throws IOException {
+        this.port = port;
+        this.loops = new IoLoop[Math.max(1, loopCount)];
+        for (int i = 0; i < loops.length; i++)
+            loops[i] = new IoLoop(i);
+    }
+
+    // accept 는 호출 스레드에서, 읽기/쓰기는 I/O 루프에서
+    void run() throws IOException {
+        for (IoLoop l : loops) l.start();
+
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(port), 1024);
+
+            while (true) {
+                SocketChannel ch = server.accept();
+                ch.configureBlocking(false);
+                ch.socket().setTcpNoDelay(true);
+
+                IoLoop loop = loops[next];
+                next = (next + 1) % loops.length;
+                loop.execute(() -> loop.register(ch));
+            }
+        }
+    }
+
+    // ==========================
+    // I/O 루프 (스레드 1개 + Selector 1개)
+    // ==========================
+    static class IoLoop extends Thread {
+
+        private final Selector selector;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuf = ByteBuffer.allocateDirect(READ_BUF);
+
+        IoLoop(int id) throws IOException {
+            super("nio-loop-" + id);
+            setDaemon(true);
+            selector = Selector.open();
+        }
+
+        // 다른 스레드에서 루프에 작업 넘기기
+        void execute(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        boolean inLoop() {
+            return Thread.currentThread() == this;
+        }
+
+        private void register(SocketChannel ch) {
+            try {
+                SelectionKey key = ch.register(selector, SelectionKey.OP_READ);
+                NioConnection c = new NioConnection(this, ch, key);
+                key.attach(c);
+                c.handler.onOpen();
+            } catch (IOException e) {
+                try { ch.close(); } catch (IOException ignored) {}
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+
+                    Runnable t;
+                    while ((t = tasks.poll()) != null) t.run();
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+
+                        NioConnection c = (NioConnection) key.attachment();
+                        if (!key.isValid()) {
+                            c.close();
+                            continue;
+                        }
+                        if (key.isReadable()) c.onReadable(readBuf);
+                        if (key.isValid() && key.isWritable()) c.flush();
+                    }
+                } catch (Exception e) {
+                    // 한 연결의 예외로 루프 전체가 죽지 않게
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    // ==========================
+    // 연결 1개
+    // ==========================
+    static class NioConnection implements Connection {
+
+        private final IoLoop loop;
+        private final SocketChannel ch;
+        private final SelectionKey key;
+        final RoomServer.ClientHandler handler;
+
+        // 수신 버퍼 (텍스트 줄 또는 바이너리 프레임 본문)
+        private byte[] line = new byte[256];
+        private int lineLen = 0;
+
+        // 바이너리 모드 프레임 헤더 상태
+        private volatile boolean binary = false;
+        private int frameLen = -1;
+        private int header = 0;
+        private int headerRead = 0;
+
+        // 송신 대기열 (어느 스레드에서든 send 가능, high-water 초과 시 정책 적용)
+        private final OutboundQueue<ByteBuffer> pending = new OutboundQueue<>(this::close);
+        private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        NioConnection(IoLoop loop, SocketChannel ch, SelectionKey key) {
+            this.loop = loop;
+            this.ch = ch;
+            this.key = key;
+            this.handler = new RoomServer.ClientHandler(this);
+        }
+
+        // ===== 수신 =====
+        private void onReadable(ByteBuffer buf) {
+            buf.clear();
+            int n;
+            try {
+                n = ch.read(buf);
+            } catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) {
+                close();
+                return;
+            }
+
+            buf.flip();
+            while (buf.hasRemaining() && !closed.get()) {
+                if (binary) readFrame(buf);
+                else readLine(buf);
+            }
+        }
+
+        private void readLine(ByteBuffer buf) {
+            byte b = buf.get();
+            if (b == '\n') {
+                int len = lineLen;
+                if (len > 0 && line[len - 1] == '\r') len--;
+                lineLen = 0;
+                handler.onLine(new String(line, 0, len, StandardCharsets.UTF_8));
+                return;
+            }
+
+            if (lineLen == MAX_LINE) {
+                // 비정상적으로 긴 줄 → 연결 종료
+                close();
+                return;
+            }
+            ensure(lineLen + 1);
+            line[lineLen++] = b;
+        }
+
+        private void readFrame(ByteBuffer buf) {
+            // 길이 헤더 2바이트
+            if (frameLen < 0) {
+                header = (header << 8) | (buf.get() & 0xFF);
+                if (++headerRead == 2) {
+                    frameLen = (header == 0) ? -1 : header;
+                    header = 0;
+                    headerRead = 0;
+                    lineLen = 0;
+                }
+                return;
+            }
+
+            // 본문은 한 번에 복사
+            int n = Math.min(buf.remaining(), frameLen - lineLen);
+            ensure(frameLen);
+            buf.get(line, lineLen, n);
+            lineLen += n;
+
+            if (lineLen == frameLen) {
+                int len = frameLen;
+                frameLen = -1;
+                lineLen = 0;
+
+                int op = line[0] & 0xFF;
+                if (op == Wire.OP_TEXT)
+                    handler.onLine(new String(line, 1, len - 1, StandardCharsets.UTF_8));
+                else
+                    handler.onFrame(op, line, len);
+            }
+        }
+
+        private void ensure(int size) {
+            if (size > line.length)
+                line = Arrays.copyOf(line, Math.max(size, line.length * 2));
+        }
+
+        // ===== 송신 =====
+        @Override
+        public void send(Frame frame) {
+            if (closed.get()) return;
+            if (!pending.offer(ByteBuffer.wrap(frame.encode(binary)), frame.droppable))
+                return;
+
+            if (flushScheduled.compareAndSet(false, true)) {
+                if (loop.inLoop()) flush();
+                else loop.execute(this::flush);
+            }
+        }
+
+        @Override
+        public void setBinary() {
+            binary = true;
+        }
+
+        // I/O 루프에서만 호출
+        private void flush() {
+            if (closed.get()) return;
+            try {
+                while (true) {
+                    ByteBuffer b;
+                    while ((b = pending.peek()) != null) {
+                        ch.write(b);
+                        if (b.hasRemaining()) {
+                            // 소켓 버퍼가 가득 참 → 쓰기 가능해지면 다시
+                            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                            return;
+                        }
+                        pending.poll();
+                    }
+
+                    key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                    flushScheduled.set(false);
+
+                    // 그 사이에 들어온 메시지가 있으면 다시 잡는다
+                    if (pending.isEmpty() || !flushScheduled.compareAndSet(false, true))
+                        return;
+                }
+            } catch (IOException | CancelledKeyException e) {
+                close();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) return;
+
+            if (loop.inLoop()) doClose();
+            else loop.execute(this::doClose);
+        }
+
+        private void doClose() {
+            key.cancel();
+            try { ch.close(); } catch (IOException ignored) {}
+            pending.clear();
+            handler.onClose();
+        }
+    }
+}
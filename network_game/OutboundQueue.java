@@ -0,0 +1,93 @@
+package network_game;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 연결 1개의 송신 대기열
+// 브로드캐스트하는 쪽은 넣기만 하고 바로 돌아간다. 실제 소켓 쓰기는 연결의 writer 가 한다.
+// 대기열이 high-water 를 넘으면 (= 클라이언트가 못 따라오면) 정책에 따라 버리거나 끊는다.
+//
+//   -Droomserver.outHighWater=256       연결당 최대 대기 메시지 수
+//   -Droomserver.outPolicy=disconnect   disconnect | drop
+class OutboundQueue<T> {
+
+    // DROP 이어도 버리는 건 넣는 쪽이 droppable 이라고 한 것 (Frame.droppable: 채팅 / 로비 변경분) 뿐이다.
+    //   게임 메시지가 넘치면 정책과 상관없이 끊고, 클라이언트는 RESUME 으로 좌석과 상태를 다시 받는다.
+    enum Policy { DROP, DISCONNECT }
+
+    static final int HIGH_WATER = Integer.getInteger("roomserver.outHighWater", 256);
+    static final Policy POLICY =
+            "drop".equalsIgnoreCase(System.getProperty("roomserver.outPolicy"))
+                    ? Policy.DROP : Policy.DISCONNECT;
+
+    // ===== 서버 전체 카운터 =====
+    static final LongAdder enqueued = new LongAdder();
+    static final LongAdder dropped = new LongAdder();
+    static final LongAdder disconnected = new LongAdder();
+    static final LongAdder totalDepth = new LongAdder();
+    static final AtomicInteger peakDepth = new AtomicInteger();
+
+    private final ArrayBlockingQueue<T> queue;
+    private final Runnable onDisconnect;
+
+    OutboundQueue(Runnable onDisconnect) {
+        this.queue = new ArrayBlockingQueue<>(HIGH_WATER);
+        this.onDisconnect = onDisconnect;
+    }
+
+    // 넣기 (절대 블로킹하지 않음)
+    // droppable = false 면 정책과 상관없이 넘치면 끊는다 (하나라도 빠지면 안 되는 것)
+    boolean offer(T item, boolean droppable) {
+        if (!queue.offer(item)) {
+            if (droppable && POLICY == Policy.DROP) {
+                dropped.increment();
+            } else {
+                disconnected.increment();
+                onDisconnect.run();
+            }
+            return false;
+        }
+
+        enqueued.increment();
+        totalDepth.increment();
+
+        int d = queue.size();
+        if (d > peakDepth.get())
+            peakDepth.accumulateAndGet(d, Math::max);
+        return true;
+    }
+
+    // writer 전용: 비어 있으면 기다림
+    T take() throws InterruptedException {
+        T item = queue.take();
+        totalDepth.decrement();
+        return item;
+    }
+
+    // writer 전용: 비어 있으면 null
+    T poll() {
+        T item = queue.poll();
+        if (item != null) totalDepth.decrement();
+        return item;
+    }
+
+    T peek() {
+        return queue.peek();
+    }
+
+    boolean isEmpty() {
+        return queue.isEmpty();
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    // 연결 종료 시 남은 메시지 정리
+    void clear() {
+        while (queue.poll() != null)
+            totalDepth.decrement();
+    }
+
+}
@@ -4,16 +4,20 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.*;
-import java.net.Socket;
+import java.io.IOException;
+import java.util.Arrays;
 
 public class Room extends JFrame {
 
-    private final Socket socket;
-    private final PrintWriter out;
-    private final BufferedReader in;
+    // 끊겼을 때 같은 좌석으로 다시 붙기 (서버가 좌석을 잡아 두는 동안)
+    private static final int RESUME_ATTEMPTS = 15;
+    private static final long RESUME_RETRY = 2_000;
+
+    private volatile WireSocket ws;
+    private final String session;   // 재접속 토큰 (없으면 재접속 안 함)
 
     private final String myName;
+    private int mySeat = -1;   // 바이너리 모드에서 GAME_START 로 받음
 
     private GamePanel gamePanel;
     private ChatPanel chatPanel;
@@ -21,13 +25,12 @@ public class Room extends JFrame {
     private Thread receiveThread;
     private volatile boolean running = true;
 
-    public Room(String roomName, String myName, Socket socket) throws IOException {
+    public Room(String roomName, String myName, WireSocket ws, String session) throws IOException {
         super("게임방 - " + roomName);
 
         this.myName = myName;
-        this.socket = socket;
-        this.out = new PrintWriter(socket.getOutputStream(), true);
-        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        this.ws = ws;
+        this.session = session;
 
         buildGUI();
         addCloseHandler();
@@ -46,7 +49,7 @@ public class Room extends JFrame {
         bg.setBackground(new Color(60, 122, 65));
         setContentPane(bg);
 
-        gamePanel = new GamePanel(myName, msg -> out.println(msg));
+        gamePanel = new GamePanel(myName, this::send);
         bg.add(gamePanel, BorderLayout.CENTER);
 
         chatPanel = new ChatPanel(this::sendChat);
@@ -59,7 +62,15 @@ public class Room extends JFrame {
     // ==========================
     private void sendChat(String channel, String text) {
         if (text == null || text.trim().isEmpty()) return;
-        out.println(("TEAM".equals(channel) ? "TEAM " : "ALL ") + text);
+        send(("TEAM".equals(channel) ? "TEAM " : "ALL ") + text);
+    }
+
+    private void send(String msg) {
+        try {
+            ws.sendLine(msg);
+        } catch (IOException e) {
+            chatPanel.addChatMessage("[SYSTEM] 서버 연결 끊김");
+        }
     }
 
     // ==========================
@@ -72,19 +83,156 @@ public class Room extends JFrame {
     }
 
     private void receiveLoop() {
-        try {
-            String line;
-            while (running && (line = in.readLine()) != null) {
-                final String msg = line;
-                SwingUtilities.invokeLater(() -> handleMessage(msg));
+        Wire.Handler h = new Wire.Handler() {
+            @Override
+            public void onLine(String line) {
+                SwingUtilities.invokeLater(() -> handleMessage(line));
             }
-        } catch (IOException e) {
+
+            @Override
+            public void onFrame(int op, byte[] buf, int len) {
+                receiveFrame(op, buf, len);
+            }
+        };
+
+        while (running) {
+            try {
+                while (running && ws.next(h)) { }
+            } catch (IOException e) {
+                // 아래에서 재접속
+            }
+            if (!running || !resume()) break;
+        }
+
+        if (running) {
             SwingUtilities.invokeLater(() ->
                     chatPanel.addChatMessage("[SYSTEM] 서버 연결 끊김")
             );
         }
     }
 
+    // 새 연결로 RESUME → (바이너리면 PROTO BIN1) → RESYNC 한 줄. 로비 / 입장 과정은 거치지 않는다
+    // 서버에 연결이 안 되면 다시 시도하고, RESUME_FAIL (좌석이 이미 비었음) 이면 포기
+    private boolean resume() {
+        if (session == null) return false;
+        SwingUtilities.invokeLater(() -> chatPanel.addChatMessage("[SYSTEM] 연결 끊김 — 재접속 중..."));
+
+        WireSocket old = ws;
+        old.close();
+        for (int i = 0; i < RESUME_ATTEMPTS && running; i++) {
+            WireSocket s = null;
+            try {
+                if (i > 0) Thread.sleep(RESUME_RETRY);
+                s = old.reopen();
+
+                if (!"ENTER_NAME".equals(s.readLine())) throw new IOException("bad handshake");
+                s.sendLine("RESUME " + session + (old.isBinary() ? "|" + Wire.BIN_TOKEN : ""));
+
+                String reply = s.readLine();
+                if (Wire.PROTO_BIN.equals(reply)) {
+                    s.setBinary();
+                    reply = s.readLine();
+                }
+                if (reply == null || !reply.startsWith("RESYNC ")) {
+                    s.close();
+                    return false;
+                }
+
+                ws = s;
+                String resync = reply;
+                SwingUtilities.invokeLater(() -> {
+                    handleMessage(resync);
+                    chatPanel.addChatMessage("[SYSTEM] 재접속 완료");
+                });
+                return true;
+
+            } catch (IOException e) {
+                if (s != null) s.close();
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    // ==========================
+    // 바이너리 프레임 (수신 스레드에서 값만 꺼내고 EDT 로 넘긴다)
+    // ==========================
+    private void receiveFrame(int op, byte[] buf, int len) {
+        switch (op) {
+            case Wire.OP_GAME_START: {
+                int seat = buf[1];
+                SwingUtilities.invokeLater(() -> {
+                    mySeat = seat;
+                    gamePanel.startGame();
+                });
+                break;
+            }
+            case Wire.OP_CENTER: {
+                String side = Wire.side(buf[1]);
+                int c = buf[2] & 0xFF;
+                String card = (c == Wire.NO_CARD) ? "NONE" : Card.nameOf(c);
+                SwingUtilities.invokeLater(() -> gamePanel.setCenter(side, card));
+                break;
+            }
+            case Wire.OP_HAND: {
+                int seat = buf[1];
+                String[] cards = new String[buf[2]];
+                for (int i = 0; i < cards.length; i++)
+                    cards[i] = Card.nameOf(buf[3 + i] & 0xFF);
+                SwingUtilities.invokeLater(() -> {
+                    if (seat == mySeat) gamePanel.setHand(cards);
+                });
+                break;
+            }
+            case Wire.OP_COUNTS: {
+                int t = buf[1], el = buf[2], er = buf[3], sl = buf[4], sr = buf[5];
+                SwingUtilities.invokeLater(() -> gamePanel.setCounts(t, el, er, sl, sr));
+                break;
+            }
+            case Wire.OP_STATE: {
+                String side = Wire.side(buf[1]);
+                String card = Card.nameOf(buf[2] & 0xFF);
+                int[] counts = new int[5];
+                for (int i = 0; i < 5; i++) counts[i] = buf[3 + i];
+                String winner = (buf[8] == 0) ? null : String.valueOf((char) buf[8]);
+
+                // 손패 변화 (낸 사람에게만 옴)
+                Runnable hand = null;
+                int mode = buf[9] & 0xFF;
+                if (mode == Wire.HAND_FULL) {
+                    int seq = buf[10] & 0xFF;
+                    String[] cards = new String[buf[11]];
+                    for (int i = 0; i < cards.length; i++)
+                        cards[i] = Card.nameOf(buf[12 + i] & 0xFF);
+                    hand = () -> gamePanel.applyHandFull(seq, cards);
+                } else if (mode == Wire.HAND_DELTA) {
+                    int seq = buf[10] & 0xFF;
+                    String removed = Card.nameOf(buf[11] & 0xFF);
+                    int d = buf[12] & 0xFF;
+                    String drawn = (d == Wire.NO_CARD) ? null : Card.nameOf(d);
+                    hand = () -> gamePanel.applyHandDelta(seq, removed, drawn);
+                }
+
+                Runnable h = hand;
+                SwingUtilities.invokeLater(() -> applyState(side, card, counts, h, winner));
+                break;
+            }
+            case Wire.OP_GAME_OVER: {
+                char result = (char) buf[1];
+                boolean timeOver = buf[2] != 0;
+                String text;
+                if (!timeOver) text = String.valueOf(result);
+                else if (result == 'D') text = "DRAW";
+                else text = "TEAM_" + result;
+                SwingUtilities.invokeLater(() -> handleMessage("GAME_OVER " + text));
+                break;
+            }
+            default:
+                System.out.println("ROOM FRAME: " + op);
+        }
+    }
+
     // 메시지 처리
     private void handleMessage(String line) {
 
@@ -129,6 +277,47 @@ public class Room extends JFrame {
             }
         }
 
+        else if (line.startsWith("STATE ")) {
+            // STATE side card t el er sl sr winner [H:seq:cards | D:seq:removed:drawn]
+            String[] p = line.split(" ");
+            int[] counts = new int[5];
+            for (int i = 0; i < 5; i++) counts[i] = Integer.parseInt(p[3 + i]);
+            String winner = p[8].equals("-") ? null : p[8];
+
+            Runnable hand = null;
+            if (p.length > 9) {
+                String[] h = p[9].split(":", -1);
+                int seq = Integer.parseInt(h[1]);
+                if (h[0].equals("H")) {
+                    String[] cards = h[2].isEmpty() ? new String[0] : h[2].split(",");
+                    hand = () -> gamePanel.applyHandFull(seq, cards);
+                } else {
+                    String drawn = h[3].equals("-") ? null : h[3];
+                    hand = () -> gamePanel.applyHandDelta(seq, h[2], drawn);
+                }
+            }
+            applyState(p[1], p[2], counts, hand, winner);
+        }
+
+        else if (line.startsWith("RESYNC ")) {
+            // RESYNC seat 중앙L 중앙R t el er sl sr H:seq:cards
+            String[] p = line.split(" ");
+            mySeat = Integer.parseInt(p[1]);
+            gamePanel.startGame();
+
+            String[] h = p[9].split(":", -1);
+            gamePanel.applyHandFull(Integer.parseInt(h[1]),
+                    h[2].isEmpty() ? new String[0] : h[2].split(","));
+            gamePanel.setCenter("L", p[2]);
+            gamePanel.setCenter("R", p[3]);
+            gamePanel.setCountsFromMessage(String.join(" ", Arrays.copyOfRange(p, 4, 9)));
+        }
+
+        else if (line.equals("PLAY_REJECT")) {
+            // 그 사이 다른 사람이 먼저 내서 중앙 카드가 바뀐 경우 등
+            chatPanel.addChatMessage("[SYSTEM] 낼 수 없는 카드입니다");
+        }
+
         else if (line.startsWith("COUNTS ")) {
             gamePanel.setCountsFromMessage(line.substring(7));
         }
@@ -148,6 +337,14 @@ public class Room extends JFrame {
     }
 
 
+    // STATE 적용 (EDT)
+    private void applyState(String side, String card, int[] counts, Runnable hand, String winner) {
+        if (hand != null) hand.run();
+        gamePanel.applyState(side, card, counts);
+        if (winner != null)
+            handleMessage("GAME_OVER " + winner);
+    }
+
     // 종료 처리
     private void cleanup() {
         if (!running) return;
@@ -0,0 +1,168 @@
+package network_game;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 방 목록
+// 조회(get / 목록)는 잠금 없이, 생성/삭제/상태 변경만 짧은 잠금으로 직렬화한다.
+// GET_ROOMS 응답(ROOM ... / ROOM_END)은 방이 바뀔 때만 다시 만들어 두고,
+// 요청이 오면 만들어 둔 Frame 하나를 그대로 보낸다.
+//
+// 로비 구독 (SUBSCRIBE_ROOMS)
+//   구독 시 스냅샷 1번:  ROOM_SYNC <ver> / ROOM_ENTRY <인원> <시작 0|1> <방 이름> ... / ROOM_SYNC_END
+//   이후 변경분만:       ROOM_ADDED <ver> <인원> <시작> <방 이름>
+//                        ROOM_UPDATED <ver> <인원> <시작> <방 이름>
+//                        ROOM_REMOVED <ver> <방 이름>
+//   ver 는 변경마다 1씩 증가. 클라이언트가 번호가 비는 걸 보면 다시 SUBSCRIBE_ROOMS 로 스냅샷을 받는다.
+final class RoomRegistry {
+
+    private final ConcurrentHashMap<String, RoomServer.RoomInfo> rooms = new ConcurrentHashMap<>();
+
+    // 생성 순서 (목록 정렬용)
+    private final AtomicLong order = new AtomicLong();
+
+    // 목록 스냅샷 재생성 / 이벤트 순서를 지키기 위한 잠금 (쓰기 전용)
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Frame listFrame = Frame.lines(List.of("ROOM_END"));
+
+    // ===== 구독 (writeLock 으로 보호) =====
+    private final Set<Connection> subscribers = ConcurrentHashMap.newKeySet();
+    private long version = 0;
+    private Frame syncFrame;   // null = 다시 만들어야 함
+
+    RoomServer.RoomInfo get(String name) {
+        return rooms.get(name);
+    }
+
+    // 새 방 등록. 이미 있으면 null
+    RoomServer.RoomInfo create(String name) {
+        writeLock.lock();
+        try {
+            RoomServer.RoomInfo r = new RoomServer.RoomInfo(name, order.incrementAndGet());
+            if (rooms.putIfAbsent(name, r) != null) return null;
+            rebuild();
+            publish("ROOM_ADDED " + (++version) + " " + describe(r));
+            return r;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    boolean remove(RoomServer.RoomInfo r) {
+        writeLock.lock();
+        try {
+            if (!rooms.remove(r.name, r)) return false;
+            rebuild();
+            publish("ROOM_REMOVED " + (++version) + " " + r.name);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // 인원 / 시작 여부가 바뀌었을 때 호출
+    void updated(RoomServer.RoomInfo r) {
+        writeLock.lock();
+        try {
+            if (rooms.get(r.name) != r) return;
+            syncFrame = null;
+            publish("ROOM_UPDATED " + (++version) + " " + describe(r));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    int size() {
+        return rooms.size();
+    }
+
+    // 지표용 (긁을 때만 순회, 방 상태는 mailbox 밖에서 읽으므로 근사값)
+    long activeGames() {
+        long n = 0;
+        for (RoomServer.RoomInfo r : rooms.values())
+            if (r.game != null && !r.gameOver) n++;
+        return n;
+    }
+
+    long mailboxDepth() {
+        long n = 0;
+        for (RoomServer.RoomInfo r : rooms.values())
+            n += r.mailboxDepth();
+        return n;
+    }
+
+    // ROOM a / ROOM b / ... / ROOM_END 를 한 번에 쓰는 Frame
+    Frame listFrame() {
+        return listFrame;
+    }
+
+    // ==========================
+    // 구독
+    // ==========================
+
+    // 스냅샷을 보내고 구독자로 등록. 이미 구독 중이면 스냅샷만 다시 보낸다 (재동기화)
+    void subscribe(Connection c) {
+        writeLock.lock();
+        try {
+            if (syncFrame == null) syncFrame = buildSync();
+            c.send(syncFrame);
+            subscribers.add(c);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void unsubscribe(Connection c) {
+        subscribers.remove(c);
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    // 잠금 안에서 호출: 이벤트 1건을 모든 구독자에게 (인코딩은 Frame 에서 1번)
+    private void publish(String line) {
+        if (subscribers.isEmpty()) return;
+        Frame f = Frame.text(line);
+        for (Connection c : subscribers)
+            c.send(f);
+    }
+
+    private static String describe(RoomServer.RoomInfo r) {
+        return r.users.size() + " " + (r.gameStarted ? 1 : 0) + " " + r.name;
+    }
+
+    private List<RoomServer.RoomInfo> sorted() {
+        List<RoomServer.RoomInfo> list = new ArrayList<>(rooms.values());
+        list.sort(Comparator.comparingLong(r -> r.order));
+        return list;
+    }
+
+    private void rebuild() {
+        List<RoomServer.RoomInfo> list = sorted();
+
+        List<String> lines = new ArrayList<>(list.size() + 1);
+        for (RoomServer.RoomInfo r : list)
+            lines.add("ROOM " + r.name);
+        lines.add("ROOM_END");
+
+        listFrame = Frame.lines(lines);
+        syncFrame = null;
+    }
+
+    private Frame buildSync() {
+        List<RoomServer.RoomInfo> list = sorted();
+
+        List<String> lines = new ArrayList<>(list.size() + 2);
+        lines.add("ROOM_SYNC " + version);
+        for (RoomServer.RoomInfo r : list)
+            lines.add("ROOM_ENTRY " + describe(r));
+        lines.add("ROOM_SYNC_END");
+        return Frame.lines(lines);
+    }
+}
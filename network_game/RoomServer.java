@@ -2,338 +2,806 @@ package network_game;
 
 import java.io.*;
 import java.net.*;
+import java.security.SecureRandom;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
 
 public class RoomServer {
 
     private static final int PORT = 5001;
 
-    private static final Set<String> usedNames =
-            Collections.synchronizedSet(new HashSet<>());
-    private static final List<ClientHandler> allHandlers =
-            Collections.synchronizedList(new ArrayList<>());
-    private static final Map<String, RoomInfo> rooms =
-            Collections.synchronizedMap(new LinkedHashMap<>());
-
-    private static final List<String> BAD_WORDS = new ArrayList<>();
+    private static final Set<String> usedNames = ConcurrentHashMap.newKeySet();
+    private static final Set<ClientHandler> allHandlers = ConcurrentHashMap.newKeySet();
+    // 재접속 토큰 → 그 좌석의 현재 주인, 끊긴 채 좌석을 잡고 있는 플레이어
+    private static final Map<String, ClientHandler> sessions = new ConcurrentHashMap<>();
+    private static final Set<ClientHandler> held = ConcurrentHashMap.newKeySet();
+    private static final SecureRandom random = new SecureRandom();
+    static final RoomRegistry rooms = new RoomRegistry();
+
+    // 연결 / 타이머 스레드 생성기 (thread 모드: 플랫폼, virtual 모드: 가상 스레드)
+    private static ThreadFactory threads = Thread.ofPlatform().factory();
+
+    // 금칙어 필터 (파일이 바뀌면 새로 만들어 통째로 교체)
+    //   -Droomserver.badwords=<경로>  지정하지 않으면 클래스패스의 badwords.txt
+    private static volatile WordFilter badWords = WordFilter.EMPTY;
+    private static final long BAD_WORDS_POLL = 2_000;
     private static final int MAX_WARNING = 3;
     private static final long MUTE_TIME = 30_000;
+    private static final long GAME_TIME = 30_000;
+
+    // 닉네임 / 방 이름 최대 글자 수 (journal 레코드의 u16 길이 안에 넉넉히 들어가도록)
+    static final int MAX_NAME = 32;
+
+    // 닉네임을 보내지 않고 버티는 연결 정리
+    private static final long HANDSHAKE_TIMEOUT =
+            Long.getLong("roomserver.handshakeTimeout", 60_000);
+
+    // 게임 중 끊긴 좌석을 비우지 않고 RESUME 을 기다리는 시간 (0 이면 바로 비움)
+    private static final long RESUME_GRACE =
+            Long.getLong("roomserver.resumeGrace", 30_000);
+
+    // 게임 제한 시간 / 채팅 금지 해제 / 대기 시간 초과
+    private static final WheelTimer timer = WheelTimer.SHARED;
+
+    // 손패 delta 몇 번마다 전체 손패를 다시 보낼지
+    private static final int HAND_RESYNC = 8;
+
+    // 게임 기록 / 재시작 시 복구
+    //   -Droomserver.journal=<폴더>|off   기본 = 작업 폴더의 ./journal (샤드를 한 폴더에서 여럿 띄우면 따로 지정)
+    private static GameJournal journal = GameJournal.OFF;
+
+    // NIO 모드 I/O 루프 수
+    private static final int NIO_LOOPS = Integer.getInteger(
+            "roomserver.nioLoops",
+            Math.min(4, Runtime.getRuntime().availableProcessors()));
 
     public static void main(String[] args) {
+        // 실행 인자: [thread|virtual|nio] [port]
+        String engine = (args.length > 0) ? args[0] : "thread";
+        int port = (args.length > 1) ? Integer.parseInt(args[1]) : PORT;
+
+        try {
+            serve(engine, port);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // 서버 실행 (반환하지 않음) — ConnectionBench 에서도 사용
+    static void serve(String engine, int port) throws IOException {
         loadBadWords();
-        System.out.println("RoomServer 시작 — 포트 " + PORT);
+        journal = GameJournal.open(System.getProperty("roomserver.journal", "journal"));
+        restoreGames();
+        registerGauges();
+        Metrics.serve(Integer.getInteger("roomserver.adminPort", port + 1000));
+        System.out.println("RoomServer 시작 — 포트 " + port + " (" + engine + ")");
+
+        switch (engine) {
+            case "nio":
+                new NioServer(port, NIO_LOOPS).run();
+                break;
+            case "virtual":
+                threads = Thread.ofVirtual().name("conn-", 0).factory();
+                runThreadPerConnection(port);
+                break;
+            default:
+                runThreadPerConnection(port);
+        }
+    }
+
+    // journal 에서 복구한 진행 중 게임을 방으로 되살린다 (남은 제한 시간은 시작 시각 기준)
+    private static void restoreGames() {
+        for (GameJournal.Recovered g : journal.recovered()) {
+            RoomInfo r = rooms.create(g.room);
+            if (r == null) continue;
+
+            r.tell(() -> {
+                r.game = g.game;
+                r.gameId = g.id;
+                r.gameStarted = true;
+                r.seatNames = g.names;
+                long left = GAME_TIME - (System.currentTimeMillis() - g.startMs);
+                r.gameTimeout = timer.schedule(Math.max(0, left),
+                        () -> r.tell(() -> ClientHandler.onGameTimeOver(r)));
+                rooms.updated(r);
+                ClientHandler.resolveStall(r);
+            });
+        }
+
+        if (!journal.recovered().isEmpty())
+            System.out.println("진행 중이던 게임 " + journal.recovered().size() + "개 복구");
+    }
+
+    // 관리 포트에 보일 현재 값들 (긁을 때만 읽는다)
+    private static void registerGauges() {
+        Metrics.gauge("roomserver_connections", allHandlers::size);
+        Metrics.gauge("roomserver_users", usedNames::size);
+        Metrics.gauge("roomserver_seats_held", held::size);
+        Metrics.gauge("roomserver_rooms", rooms::size);
+        Metrics.gauge("roomserver_games_active", rooms::activeGames);
+        Metrics.gauge("roomserver_lobby_subscribers", rooms::subscribers);
+        Metrics.gauge("roomserver_mailbox_depth", rooms::mailboxDepth);
+
+        Metrics.gauge("roomserver_outbound_enqueued_total", OutboundQueue.enqueued::sum);
+        Metrics.gauge("roomserver_outbound_dropped_total", OutboundQueue.dropped::sum);
+        Metrics.gauge("roomserver_outbound_disconnected_total", OutboundQueue.disconnected::sum);
+        Metrics.gauge("roomserver_outbound_depth", OutboundQueue.totalDepth::sum);
+        Metrics.gauge("roomserver_outbound_depth_peak", OutboundQueue.peakDepth::get);
+
+        Metrics.gauge("roomserver_timer_pending", timer::pending);
+        Metrics.gauge("roomserver_timer_fired_total", timer::fired);
+        Metrics.gauge("roomserver_timer_cancelled_total", timer::cancelled);
+
+        Metrics.gauge("roomserver_journal_records_total", journal.records::sum);
+        Metrics.gauge("roomserver_journal_batches_total", journal.batches::sum);
+    }
+
+    // 현재 엔진의 스레드 종류로 새 스레드 생성 (시작은 호출한 쪽에서)
+    static Thread newThread(Runnable task) {
+        return threads.newThread(task);
+    }
 
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
+    // ===== 연결당 스레드 방식 (플랫폼 / 가상) =====
+    private static void runThreadPerConnection(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, 1024)) {
             while (true) {
                 Socket sock = serverSocket.accept();
-                ClientHandler handler = new ClientHandler(sock);
-                allHandlers.add(handler);
-                handler.start();
+                threads.newThread(new SocketConnection(sock)).start();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
 
     private static void loadBadWords() {
+        File file = badWordsFile();
+        try (InputStream in = (file != null)
+                ? new FileInputStream(file)
+                : RoomServer.class.getClassLoader().getResourceAsStream("badwords.txt")) {
+            badWords = readBadWords(in);
+            System.out.println("금칙어 " + badWords.size() + "개 로딩");
+        } catch (Exception e) {
+            System.out.println("[WARN] badwords.txt 로딩 실패");
+        }
+
+        if (file != null) watchBadWords(file);
+    }
+
+    private static WordFilter readBadWords(InputStream in) throws IOException {
+        List<String> words = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(
-                new InputStreamReader(
-                        RoomServer.class.getClassLoader()
-                                .getResourceAsStream("badwords.txt")
-                )
-        )) {
+                new InputStreamReader(in, java.nio.charset.StandardCharsets.UTF_8))) {
             String line;
             while ((line = br.readLine()) != null)
                 if (!line.isBlank())
-                    BAD_WORDS.add(line.trim().toLowerCase());
-        } catch (Exception e) {
-            System.out.println("[WARN] badwords.txt 로딩 실패");
+                    words.add(line);
+        }
+        return WordFilter.compile(words);
+    }
+
+    // 디스크 위의 파일이면 감시 가능 (jar 안의 리소스는 null)
+    private static File badWordsFile() {
+        String path = System.getProperty("roomserver.badwords");
+        if (path != null) return new File(path);
+
+        URL url = RoomServer.class.getClassLoader().getResource("badwords.txt");
+        if (url == null || !"file".equals(url.getProtocol())) return null;
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            return null;
         }
     }
 
+    // 수정 시각을 주기적으로 보고, 바뀌었으면 새 필터를 만들어 교체
+    // (만드는 동안에도 채팅은 이전 필터를 그대로 쓴다)
+    private static void watchBadWords(File file) {
+        Thread t = new Thread(() -> {
+            long seen = file.lastModified();
+            while (true) {
+                try {
+                    Thread.sleep(BAD_WORDS_POLL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                long m = file.lastModified();
+                if (m == seen || m == 0) continue;
+                seen = m;
+
+                try (InputStream in = new FileInputStream(file)) {
+                    badWords = readBadWords(in);
+                    System.out.println("금칙어 다시 로딩: " + badWords.size() + "개");
+                } catch (IOException e) {
+                    System.out.println("[WARN] badwords.txt 다시 로딩 실패: " + e.getMessage());
+                }
+            }
+        }, "badwords-watch");
+        t.setDaemon(true);
+        t.start();
+    }
+
     static class RoomInfo {
         final String name;
-        final List<ClientHandler> users =
-                Collections.synchronizedList(new ArrayList<>());
-
-        boolean gameStarted = false;
-        final Object gameLock = new Object();
+        final long order;   // 생성 순서 (목록 정렬)
+        // 브로드캐스트는 잠금 없이 스냅샷을 순회한다
+        final List<ClientHandler> users = new CopyOnWriteArrayList<>();
+
+        // 아래 상태는 방 mailbox 안에서만 바꾼다 (gameStarted 는 로비 목록에서도 읽음)
+        private final Mailbox mailbox = new Mailbox();
+        volatile boolean gameStarted = false;
+        boolean closed = false;   // 마지막 사람이 나가 목록에서 빠짐
         GameState game;
+        long gameId;          // journal 기록 번호
+        boolean gameOver;     // 승리 또는 시간 초과로 끝남
+        WheelTimer.Timeout gameTimeout;
+        String[] seatNames;   // journal 에서 복구한 방: 아직 안 돌아온 좌석의 닉네임 (돌아오면 null)
 
-        RoomInfo(String name) {
+        RoomInfo(String name, long order) {
             this.name = name;
+            this.order = order;
+        }
+
+        // 이 방의 작업으로 넣기 (넣은 순서대로, 한 번에 하나씩 실행)
+        void tell(Runnable task) {
+            mailbox.tell(task);
         }
 
         boolean isFull() {
             return users.size() >= 4;
         }
+
+        int mailboxDepth() {
+            return mailbox.depth();
+        }
+
+        // 복구된 게임에서 이 닉네임이 앉아 있던 좌석 (한 번만, 없으면 -1)
+        int reclaimSeat(String nick) {
+            if (seatNames == null) return -1;
+            for (int i = 0; i < seatNames.length; i++) {
+                if (nick.equals(seatNames[i])) {
+                    seatNames[i] = null;
+                    return i;
+                }
+            }
+            return -1;
+        }
     }
 
-    static class ClientHandler extends Thread {
+    static class ClientHandler implements Wire.Handler {
 
-        private final Socket socket;
-        private PrintWriter out;
-        private BufferedReader in;
+        private final Connection conn;
 
         private String name;
         private String badge;
-        private String joinedRoom;
+        private volatile RoomInfo room;         // 들어가는 중이거나 들어간 방
+        private volatile String joinedRoom;     // 입장 완료 후 (방 명령 허용)
         private String team;
+        private int seat = -1;
+        private int handSeq = 0;
 
         private int badCount = 0;
-        private long muteUntil = 0;
+        private volatile WheelTimer.Timeout mute;
+        private WheelTimer.Timeout handshakeTimeout;
 
-        ClientHandler(Socket socket) {
-            this.socket = socket;
+        private String session;               // 재접속 토큰 (핸드셰이크 때 발급)
+        private volatile boolean resuming;    // RESUME 처리 중 (RESYNC 를 보내기 전까지 입력 무시)
+        private boolean replaced;             // 새 연결이 좌석을 이어받음 (방 mailbox 안에서만)
+        private WheelTimer.Timeout grace;     // 끊긴 좌석을 비우는 타이머
+
+        ClientHandler(Connection conn) {
+            this.conn = conn;
         }
 
-        @Override
-        public void run() {
-            try {
-                out = new PrintWriter(socket.getOutputStream(), true);
-                in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        private void send(String msg) {
+            conn.send(Frame.text(msg));
+        }
 
-                // 닉네임 입력 & 중복 검사
-                out.println("ENTER_NAME");
+        private void send(Frame frame) {
+            conn.send(frame);
+        }
 
-                while (true) {
-                    String raw = in.readLine();
-                    if (raw == null) return;
+        // ===== 연결 수립 =====
+        void onOpen() {
+            allHandlers.add(this);
 
-                    // raw = "닉네임|badge.png"
-                    String[] parts = raw.split("\\|");
+            // 닉네임 입력 & 중복 검사
+            handshakeTimeout = timer.schedule(HANDSHAKE_TIMEOUT, conn::close);
+            send("ENTER_NAME");
+        }
 
-                    name = parts[0].trim();
-                    badge = (parts.length > 1) ? parts[1] : null;
+        // ===== 한 줄 수신 =====
+        @Override
+        public void onLine(String line) {
+            if (resuming) return;
+
+            if (name == null) {
+                if (line.startsWith("RESUME ")) {
+                    Metrics.resume.increment();
+                    handleResume(line.substring(7));
+                } else {
+                    handleName(line);
+                }
+                return;
+            }
 
-                    if (name.isEmpty()) {
-                        out.println("NAME_INVALID");
-                        continue;
-                    }
+            long t0 = System.nanoTime();   // 지연 시간 측정 시작 (줄을 읽은 시각)
 
-                    synchronized (usedNames) {
-                        if (!usedNames.contains(name)) {
-                            usedNames.add(name);
-                            break;
-                        }
-                    }
+            if (line.startsWith("ENTER_ROOM ")) {
+                Metrics.enterRoom.increment();
+                handleEnterRoom(line.substring(11), t0);
+            }
 
-                    out.println("NAME_INVALID");
+            else if (joinedRoom == null) {
+                if (line.equals("GET_ROOMS")) {
+                    sendRoomList();
+                }
+                else if (line.equals("SUBSCRIBE_ROOMS")) {
+                    rooms.subscribe(conn);
+                }
+                else if (line.startsWith("CREATE ")) {
+                    Metrics.create.increment();
+                    createRoom(line.substring(7), t0);
                 }
+            }
 
-                // 메인 메시지 루프
-                String line;
-                while ((line = in.readLine()) != null) {
-
-                    if (line.startsWith("ENTER_ROOM ")) {
-                        handleEnterRoom(line.substring(11));
-                    }
-
-                    else if (joinedRoom == null) {
-                        if (line.equals("GET_ROOMS")) {
-                            sendRoomList();
-                        }
-                        else if (line.startsWith("CREATE ")) {
-                            createRoom(line.substring(7));
-                        }
-                    }
-
-                    else {
-                        if (line.startsWith("PLAY ")) {
-                            handlePlay(line.substring(5));
-                        }
-                        else if (line.startsWith("ALL ")) {
-                            handleChat(line.substring(4), false);
-                        }
-                        else if (line.startsWith("TEAM ")) {
-                            handleChat(line.substring(5), true);
-                        }
-                    }
+            else {
+                if (line.startsWith("PLAY ")) {
+                    handlePlay(line.substring(5), t0);
+                }
+                else if (line.startsWith("ALL ")) {
+                    Metrics.chatAll.increment();
+                    handleChat(line.substring(4), false, t0);
+                }
+                else if (line.startsWith("TEAM ")) {
+                    Metrics.chatTeam.increment();
+                    handleChat(line.substring(5), true, t0);
                 }
+            }
+        }
 
-            } catch (IOException e) {
-                // 연결 종료
-            } finally {
-                cleanup();
+        // ===== 바이너리 프레임 수신 =====
+        @Override
+        public void onFrame(int op, byte[] buf, int len) {
+            if (joinedRoom == null) return;
+
+            if (op == Wire.OP_PLAY && len == 3) {
+                long t0 = System.nanoTime();
+                int c = buf[1] & 0xFF;
+                if (c >= 52) {
+                    Metrics.play.increment();
+                    rejectPlay();
+                    return;
+                }
+                handlePlay(Card.fromOrdinal(c), Wire.side(buf[2]), t0);
             }
         }
 
+        // ===== 연결 종료 =====
+        void onClose() {
+            cleanup();
+        }
+
+        private void handleName(String raw) {
+            // raw = "닉네임|badge.png"  또는  "닉네임|badge.png|BIN1" (바이너리 요청)
+            String[] parts = raw.split("\\|");
+
+            String n = parts[0].trim();
+            if (n.isEmpty() || n.length() > MAX_NAME) {
+                send("NAME_INVALID");
+                return;
+            }
+
+            if (!usedNames.add(n)) {
+                send("NAME_INVALID");
+                return;
+            }
+
+            name = n;
+            badge = (parts.length > 1) ? parts[1] : null;
+            handshakeTimeout.cancel();
+
+            if (parts.length > 2 && parts[2].equals(Wire.BIN_TOKEN)) {
+                send(Wire.PROTO_BIN);
+                conn.setBinary();
+            }
+
+            session = newSession();
+            sessions.put(session, this);
+            send("SESSION " + session);
+        }
+
+        private static String newSession() {
+            byte[] b = new byte[16];
+            random.nextBytes(b);
+            return HexFormat.of().formatHex(b);
+        }
+
+        // raw = "토큰"  또는  "토큰|BIN1"
+        // 게임 중이던 좌석을 그대로 이어받는다 (로비 / 입장 / ENTER 없이 RESYNC 한 줄로 상태 복구)
+        // 실패하면 RESUME_FAIL, 같은 연결에서 닉네임부터 다시 할 수 있다.
+        private void handleResume(String raw) {
+            String[] parts = raw.split("\\|");
+            ClientHandler old = sessions.get(parts[0].trim());
+            RoomInfo r = (old == null) ? null : old.room;
+            if (r == null) {
+                Metrics.resumeFailed.increment();
+                send("RESUME_FAIL");
+                return;
+            }
+
+            resuming = true;
+            room = r;   // 이 연결이 먼저 끊겨도 cleanup 이 같은 mailbox 에서 resume 뒤에 온다
+            if (parts.length > 1 && parts[1].equals(Wire.BIN_TOKEN)) {
+                send(Wire.PROTO_BIN);
+                conn.setBinary();
+            }
+            r.tell(() -> resume(r, old));
+        }
+
 
         private void sendRoomList() {
-            synchronized (rooms) {
-                for (String rn : rooms.keySet())
-                    out.println("ROOM " + rn);
+            // 미리 만들어 둔 목록 스냅샷을 그대로 (잠금 없음, 쓰기 1번)
+            send(rooms.listFrame());
+        }
+
+        private void createRoom(String roomName, long t0) {
+            if (room != null) return;   // 이미 들어갔거나 들어가는 중 — 만들기 전에 봐야 빈 방이 남지 않는다
+            if (roomName.isEmpty() || roomName.length() > MAX_NAME) {
+                send("MSG [SYSTEM] 방 이름은 1~" + MAX_NAME + "자입니다.");
+                return;
+            }
+            if (rooms.create(roomName) == null) {
+                send("MSG [SYSTEM] 이미 존재하는 방입니다.");
+                return;
             }
-            out.println("ROOM_END");
+
+            handleEnterRoom(roomName, t0);
         }
 
-        private void createRoom(String roomName) {
-            synchronized (rooms) {
-                if (rooms.containsKey(roomName)) {
-                    out.println("MSG [SYSTEM] 이미 존재하는 방입니다.");
-                    return;
-                }
-                rooms.put(roomName, new RoomInfo(roomName));
+        private void handleEnterRoom(String roomName, long t0) {
+            if (room != null) return;   // 이미 들어갔거나 들어가는 중
+
+            RoomInfo r = rooms.get(roomName);
+            if (r == null) {
+                send("MSG 방 입장 실패");
+                return;
             }
 
-            handleEnterRoom(roomName);
+            room = r;
+            r.tell(() -> enterRoom(r, t0));
         }
 
-        private void handleEnterRoom(String roomName) {
-            RoomInfo r;
-            synchronized (rooms) {
-                r = rooms.get(roomName);
-                if (r == null) {
-                    out.println("MSG 방 입장 실패");
-                    return;
-                }
-                if (r.isFull()) {
-                    out.println("MSG 이미 방에 입장");
-                    return;
-                }
+        // ----- 여기부터 방 mailbox 안에서 실행 -----
 
-                team = (r.users.size() % 2 == 0) ? "A" : "B";
-                joinedRoom = roomName;
-                r.users.add(this);
+        private void enterRoom(RoomInfo r, long t0) {
+            // 이미 시작한 방에는 새로 못 들어감 (복구된 방에 원래 주인이 돌아온 경우만 예외)
+            int restored = (r.closed || !r.gameStarted || r.gameOver) ? -1 : r.reclaimSeat(name);
+            if (restored >= 0) {
+                rejoinRestored(r, restored, t0);
+                return;
+            }
+            if (r.closed || r.gameStarted) {
+                room = null;
+                send("MSG 방 입장 실패");
+                return;
             }
+            if (r.isFull()) {
+                room = null;
+                send("MSG 이미 방에 입장");
+                return;
+            }
+
+            team = (r.users.size() % 2 == 0) ? "A" : "B";
+            r.users.add(this);
+            joinedRoom = r.name;   // 마지막에 (연결 스레드는 이 값을 보고 방 명령을 넘긴다)
+
+            // 방에 들어가면 로비 목록 구독은 끝
+            rooms.unsubscribe(conn);
+            rooms.updated(r);
 
-            out.println("ENTER_OK " + roomName);
+            send("ENTER_OK " + r.name);
             broadcast(r, "ENTER " + name + " " + team + " " + (badge == null ? "NONE" : badge));
 
             if (r.users.size() == 4)
                 startGame(r);
+
+            Metrics.enterLatency.recordSince(t0);
+        }
+
+        // 서버 재시작 뒤 journal 에서 되살린 게임에 원래 좌석 주인이 돌아옴
+        // 입장 (ENTER_OK / ENTER) 뒤에 GAME_START + RESYNC 한 줄로 지금 상태를 받는다.
+        private void rejoinRestored(RoomInfo r, int s, long t0) {
+            seat = s;
+            team = r.game.getTeam(s);
+            handSeq = 0;
+            r.users.add(this);
+            joinedRoom = r.name;
+
+            rooms.unsubscribe(conn);
+            rooms.updated(r);
+
+            send("ENTER_OK " + r.name);
+            broadcast(r, "ENTER " + name + " " + team + " " + (badge == null ? "NONE" : badge));
+            send(Frame.gameStart(seat));
+            send(makeResyncFrame(r, this));
+
+            Metrics.enterLatency.recordSince(t0);
+        }
+
+        // 좌석 / 팀 / 손패 seq 를 넘겨받고 예전 연결은 닫는다
+        // 예전 연결이 아직 끊긴 걸 모르고 열려 있어도 새 연결이 이긴다.
+        private void resume(RoomInfo r, ClientHandler old) {
+            int i = r.users.indexOf(old);
+            if (i < 0 || old.replaced || r.game == null || r.gameOver) {
+                Metrics.resumeFailed.increment();
+                room = null;
+                send("RESUME_FAIL");
+                resuming = false;
+                return;
+            }
+
+            // 핸드셰이크 제한 시간은 좌석을 받은 뒤에야 끈다 (실패한 연결이 이름 없이 계속 남지 않게)
+            handshakeTimeout.cancel();
+
+            old.replaced = true;
+            if (old.grace != null) old.grace.cancel();
+            held.remove(old);
+            old.conn.close();   // 그쪽 cleanup 은 replaced 를 보고 아무것도 안 한다
+
+            name = old.name;
+            badge = old.badge;
+            team = old.team;
+            seat = old.seat;
+            handSeq = old.handSeq;
+            badCount = old.badCount;
+            mute = old.mute;
+            session = old.session;
+            sessions.put(session, this);
+
+            r.users.set(i, this);
+            joinedRoom = r.name;
+
+            send(makeResyncFrame(r, this));
+            resuming = false;   // 마지막에 (연결 스레드는 이 값을 보고 입력을 받기 시작한다)
         }
 
 
         private void startGame(RoomInfo r) {
-            synchronized (r.gameLock) {
-                if (r.gameStarted) return;
-                r.gameStarted = true;
+            if (r.gameStarted) return;
+            r.gameStarted = true;
+            rooms.updated(r);
+
+            // 닉네임 → 좌석은 여기서 한 번만 정한다 (이후 게임 로직은 좌석 번호로)
+            String[] teams = new String[r.users.size()];
+            String[] names = new String[r.users.size()];
+            int seat = 0;
+            for (ClientHandler u : r.users) {
+                u.seat = seat;
+                u.handSeq = 0;
+                names[seat] = u.name;
+                teams[seat++] = u.team;
+            }
+            r.game = new GameState(teams);
+            // 같은 배분을 다시 만들 수 있도록 seed 기록 (재시작 뒤 같은 좌석에 다시 앉도록 닉네임도)
+            r.gameId = journal.start(r.name, r.game.getSeed(), teams, names);
 
-                List<String> names = new ArrayList<>();
-                for (ClientHandler u : r.users) {
-                    names.add(u.name);
-                }
-                r.game = new GameState(names);
+            for (ClientHandler u : r.users) {
+                u.send(Frame.gameStart(u.seat));
+            }
+            broadcast(r, Frame.center("L", r.game.getCenterLeft()));
+            broadcast(r, Frame.center("R", r.game.getCenterRight()));
 
-                broadcast(r, "GAME_START");
-                broadcast(r, "CENTER L " + r.game.getCenterLeft());
-                broadcast(r, "CENTER R " + r.game.getCenterRight());
+            for (ClientHandler u : r.users) {
+                u.send(makeHandFrame(r.game, u));
+            }
 
-                for (ClientHandler u : r.users) {
-                    u.out.println("HAND " + u.name + " " + r.game.getHandString(u.name));
+            for (ClientHandler u : r.users) {
+                u.send(makeCountsMessageFor(u));
+            }
+            // 제한 시간 (먼저 끝나면 handlePlay 에서 취소). 타이머 스레드는 넣기만
+            r.gameTimeout = timer.schedule(GAME_TIME, () -> r.tell(() -> onGameTimeOver(r)));
+
+            // 배분부터 막혀 있을 수도 있다
+            resolveStall(r);
+        }
+
+        // 방 mailbox 안에서 실행 (배분 / PLAY / 복구 직후)
+        // 아무도 낼 카드가 없으면 30초를 기다리지 않고 보조 더미를 양쪽 다 뒤집는다.
+        // 뒤집어도 막혀 있으면 또 뒤집고, 보조 더미가 다 떨어졌으면 시간 초과와 같은 판정으로 바로 끝낸다.
+        static void resolveStall(RoomInfo r) {
+            GameState g = r.game;
+            while (!r.gameOver && g.isStalled()) {
+                boolean left = g.flipSide(true);
+                boolean right = g.flipSide(false);
+                if (!left && !right) {
+                    onGameTimeOver(r);
+                    return;
                 }
+                if (left) journal.flip(r.gameId, GameState.L);
+                if (right) journal.flip(r.gameId, GameState.R);
 
+                broadcastCenter(r);
                 for (ClientHandler u : r.users) {
-                    u.out.println(makeCountsMessageFor(u));
+                    u.send(makeCountsMessageFor(u));
                 }
             }
+        }
 
-            new Thread(() -> {
-                try {
-                    Thread.sleep(30_000);
-                } catch (InterruptedException e) {
-                    return;
-                }
+        private static void onGameTimeOver(RoomInfo r) {
+            if (r.gameOver) return;
+            r.gameOver = true;
+            if (r.gameTimeout != null) r.gameTimeout.cancel();   // 막혀서 일찍 끝난 경우
 
-                synchronized (r.gameLock) {
-                    if (r.game.isFinished()) return;
+            String result = r.game.judgeByTimeOver();
+            journal.end(r.gameId, result);
+            broadcast(r, Frame.gameOver(result, true));
 
-                    String result = r.game.judgeByTimeOver();
-                    broadcast(r,
-                        result.equals("DRAW")
-                            ? "GAME_OVER DRAW"
-                            : "GAME_OVER TEAM_" + result
-                    );
-                }
-            }).start();
+            // 복구된 방에 아무도 안 돌아왔으면 정리
+            if (r.users.isEmpty()) {
+                r.closed = true;
+                rooms.remove(r);
+            }
         }
 
 
 
 
 
-        private void handlePlay(String msg) {
+        private void handlePlay(String msg, long t0) {
             // msg = "11C L"
             String[] parts = msg.split(" ");
-            if (parts.length != 2) return;
-
-            Card card;
+            Card card = null;
             try {
-                card = Card.fromString(parts[0]);
+                if (parts.length == 2) card = Card.fromString(parts[0]);
             } catch (Exception e) {
+                // 아래에서 거절
+            }
+
+            String side = (parts.length == 2) ? parts[1] : ""; // "L" or "R"
+            if (card == null || (!side.equals("L") && !side.equals("R"))) {
+                Metrics.play.increment();
+                rejectPlay();
                 return;
             }
 
-            String side = parts[1]; // "L" or "R"
-            if (!side.equals("L") && !side.equals("R")) return;
+            handlePlay(card, side, t0);
+        }
 
-            RoomInfo r = rooms.get(joinedRoom);
+        private void handlePlay(Card card, String side, long t0) {
+            Metrics.play.increment();
+            RoomInfo r = room;
             if (r == null) return;
 
-            synchronized (r.gameLock) {
-                boolean ok = r.game.playCard(name, card, side);
-                if (!ok) return;
+            r.tell(() -> play(r, card, side, t0));
+        }
 
-                broadcast(r, "CENTER " + side + " " + card);
-                broadcast(r, "HAND " + name + " " + r.game.getHandString(name));
+        // 방 mailbox 안에서 실행
+        private void play(RoomInfo r, Card card, String side, long t0) {
+            boolean ok = r.game != null && !r.gameOver
+                    && r.game.playCard(seat, card, Wire.side(side));
+            if (!ok) {
+                rejectPlay();
+                return;
+            }
+            journal.play(r.gameId, seat, card.ordinal(), Wire.side(side));
+
+            // 좌석마다 STATE 1개 (손패 변화는 낸 사람에게만)
+            String winner = r.game.getWinnerTeam();
+            if (winner != null) {
+                r.gameTimeout.cancel();
+                r.gameOver = true;
+                journal.end(r.gameId, winner);
+            }
 
-                for (ClientHandler u : r.users)
-                    u.out.println(makeCountsMessageFor(u));
+            handSeq = (handSeq + 1) & 0xFF;
+            Frame.HandUpdate hand = (handSeq % HAND_RESYNC == 0)
+                    ? Frame.HandUpdate.full(handSeq,
+                            r.game.getHandString(seat), r.game.getHandOrdinals(seat))
+                    : Frame.HandUpdate.delta(handSeq, card, r.game.getLastDrawn());
 
-                if (r.game.isFinished())
-                    broadcast(r, "GAME_OVER " + r.game.getWinnerTeam());
+            for (ClientHandler u : r.users) {
+                u.send(Frame.state(side, card, countsFor(r, u),
+                        (u == this) ? hand : null,
+                        winner));
             }
+            Metrics.playLatency.recordSince(t0);
+
+            resolveStall(r);
         }
 
-        
-        
+        // 거절된 PLAY 는 낸 사람에게만 알린다 (다른 사람이 먼저 그 자리에 낸 경우 등)
+        private void rejectPlay() {
+            Metrics.playRejected.increment();
+            send("PLAY_REJECT");
+        }
+
+        // ================== HAND 메시지 ==================
+        private static Frame makeHandFrame(GameState g, ClientHandler owner) {
+            return Frame.hand(owner.name, owner.seat,
+                    g.getHandString(owner.seat), g.getHandOrdinals(owner.seat));
+        }
+
+        // ================== RESYNC 메시지 ==================
+        // RESYNC seat 중앙L 중앙R t el er sl sr H:seq:cards  (중앙 카드가 없으면 NONE)
+        private static Frame makeResyncFrame(RoomInfo r, ClientHandler owner) {
+            GameState g = r.game;
+            Card cl = g.getCenterLeft();
+            Card cr = g.getCenterRight();
+
+            StringBuilder sb = new StringBuilder(64);
+            sb.append("RESYNC ").append(owner.seat)
+                    .append(' ').append(cl == null ? "NONE" : cl)
+                    .append(' ').append(cr == null ? "NONE" : cr);
+            for (int c : countsFor(r, owner)) sb.append(' ').append(c);
+            sb.append(" H:").append(owner.handSeq).append(':').append(g.getHandString(owner.seat));
+            return Frame.text(sb.toString());
+        }
 
         // ================== COUNTS 메시지 ==================
-        private String makeCountsMessageFor(ClientHandler viewer) {
-            RoomInfo r = rooms.get(viewer.joinedRoom);
+        static Frame makeCountsMessageFor(ClientHandler viewer) {
+            RoomInfo r = viewer.room;
+            int[] c = countsFor(r, viewer);
+            return Frame.counts(c[0], c[1], c[2], c[3], c[4]);
+        }
+
+        // viewer 기준 { 팀원, 적L, 적R, 보조L, 보조R }
+        private static int[] countsFor(RoomInfo r, ClientHandler viewer) {
             GameState g = r.game;
 
             int teammate = 0;
             int enemyL = 0;
             int enemyR = 0;
 
-            for (ClientHandler u : r.users) {
-                if (u == viewer) continue;
+            // 좌석 기준 (복구된 방에서 아직 안 돌아온 좌석도 세도록, 적 L / R 은 좌석 순서)
+            boolean firstEnemy = true;
+            for (int s = 0; s < g.getPlayers(); s++) {
+                if (s == viewer.seat) continue;
 
-                int size = g.getHandCount(u.name);
-                if (u.team.equals(viewer.team))
+                int size = g.getHandCount(s);
+                if (g.getTeam(s).equals(viewer.team))
                     teammate = size;
-                else if (enemyL == 0)
+                else if (firstEnemy) {
                     enemyL = size;
+                    firstEnemy = false;
+                }
                 else
                     enemyR = size;
             }
 
-            return "COUNTS "
-	            + teammate + " "
-	            + enemyL + " "
-	            + enemyR + " "
-	            + g.getSideLeftCount() + " "
-	            + g.getSideRightCount();
+            return new int[] {
+                    teammate,
+                    enemyL,
+                    enemyR,
+                    g.getSideLeftCount(),
+                    g.getSideRightCount()
+            };
 
         }
 
-        private void handleChat(String msg, boolean teamOnly) {
+        private void handleChat(String msg, boolean teamOnly, long t0) {
             RoomInfo r = rooms.get(joinedRoom);
             if (r == null) return;
 
-            long now = System.currentTimeMillis();
-            if (muteUntil > now) {
-                out.println("MSG [SYSTEM] 채팅 제한 중");
+            WheelTimer.Timeout m = mute;
+            if (m != null && !m.isExpired()) {
+                send("MSG [SYSTEM] 채팅 제한 중");
                 return;
             }
 
-            if (containsBadWord(msg)) {
+            // 찾기 + 가리기 한 번에 (금칙어가 없으면 같은 객체가 돌아온다)
+            String masked = badWords.mask(msg);
+            if (masked != msg) {
                 badCount++;
-                msg = filterBadWords(msg);
-                if (badCount >= MAX_WARNING)
-                    muteUntil = now + MUTE_TIME;
+                msg = masked;
+                if (badCount >= MAX_WARNING) {
+                    // 풀릴 때의 연결로 보낸다 (그 사이 RESUME 했으면 토큰이 새 연결을 가리킨다)
+                    String token = session;
+                    mute = timer.schedule(MUTE_TIME, () -> {
+                        ClientHandler h = sessions.get(token);
+                        if (h != null) h.send("MSG [SYSTEM] 채팅 제한 해제");
+                    });
+                }
             }
 
             String outMsg;
@@ -347,58 +815,89 @@ public class RoomServer {
             	         (badge == null ? "NONE" : badge) + " " + msg;
                 broadcast(r, outMsg);
             }
+            Metrics.chatLatency.recordSince(t0);
         }
 
-        private boolean containsBadWord(String msg) {
-            String lower = msg.toLowerCase();
-            for (String w : BAD_WORDS)
-                if (lower.contains(w)) return true;
-            return false;
+        private void broadcast(RoomInfo r, String msg) {
+            broadcast(r, Frame.text(msg));
         }
 
-        private String filterBadWords(String msg) {
-            for (String w : BAD_WORDS)
-                msg = msg.replaceAll("(?i)" + w, "*".repeat(w.length()));
-            return msg;
-        }
-
-        private void broadcast(RoomInfo r, String msg) {
-            synchronized (r.users) {
-                for (ClientHandler u : r.users)
-                    u.out.println(msg);
-            }
+        static void broadcast(RoomInfo r, Frame frame) {
+            for (ClientHandler u : r.users)
+                u.send(frame);
         }
 
         private void broadcastTeam(RoomInfo r, String team, String msg) {
-            synchronized (r.users) {
-                for (ClientHandler u : r.users)
-                    if (team.equals(u.team))
-                        u.out.println(msg);
-            }
+            Frame frame = Frame.text(msg);
+            for (ClientHandler u : r.users)
+                if (team.equals(u.team))
+                    u.send(frame);
         }
 
-        private void broadcastCenter(RoomInfo r) {
+        private static void broadcastCenter(RoomInfo r) {
         	Card cl = r.game.getCenterLeft();
         	Card cr = r.game.getCenterRight();
 
-        	broadcast(r, "CENTER L " + (cl == null ? "NONE" : cl));
-        	broadcast(r, "CENTER R " + (cr == null ? "NONE" : cr));
+        	broadcast(r, Frame.center("L", cl));
+        	broadcast(r, Frame.center("R", cr));
             
         }
 
         private void cleanup() {
-            try { 
-            	if (name != null) {
-                    usedNames.remove(name);   
-                }
-            	socket.close(); 
-            	} catch (Exception ignored) {}
-      
+            if (handshakeTimeout != null) handshakeTimeout.cancel();
+
             allHandlers.remove(this);
-            usedNames.remove(name);
-            if (joinedRoom != null) {
-                RoomInfo r = rooms.get(joinedRoom);
-                if (r != null) r.users.remove(this);
+            rooms.unsubscribe(conn);
+
+            // 입장 처리 중이었어도 같은 mailbox 에서 입장 뒤에 실행된다
+            RoomInfo r = room;
+            if (r != null) r.tell(() -> disconnected(r));
+            else release();
+        }
+
+        // 진행 중인 게임의 좌석이면 바로 비우지 않고 RESUME_GRACE 동안 RESUME 을 기다린다. 방 mailbox 안에서 실행
+        private void disconnected(RoomInfo r) {
+            if (replaced) return;   // 새 연결이 이미 이어받음
+
+            if (RESUME_GRACE > 0 && r.users.contains(this) && r.game != null && !r.gameOver) {
+                held.add(this);
+                grace = timer.schedule(RESUME_GRACE, () -> r.tell(() -> expire(r)));
+                return;
+            }
+            leaveRoom(r);
+            release();
+        }
+
+        // 기다려도 안 돌아옴 → 그때 나간 것으로. 방 mailbox 안에서 실행
+        private void expire(RoomInfo r) {
+            if (replaced) return;
+
+            held.remove(this);
+            leaveRoom(r);
+            release();
+        }
+
+        // 닉네임 / 토큰 반납 (연결도 좌석도 끝났을 때 한 번)
+        private void release() {
+            if (mute != null) mute.cancel();
+            if (name != null) usedNames.remove(name);
+            if (session != null) sessions.remove(session, this);
+        }
+
+        // 마지막 사람이 나가면 방을 없앤다 (닫힌 방에는 더 못 들어옴). 방 mailbox 안에서 실행
+        private void leaveRoom(RoomInfo r) {
+            if (!r.users.remove(this)) return;   // 입장이 실패했던 경우
+
+            if (r.users.isEmpty()) {
+                r.closed = true;
+                if (r.gameTimeout != null) r.gameTimeout.cancel();
+                if (r.game != null && !r.gameOver) {
+                    r.gameOver = true;
+                    journal.end(r.gameId, null);   // 모두 나가서 버려진 게임
+                }
+                rooms.remove(r);
+            } else {
+                rooms.updated(r);
             }
         }
     }
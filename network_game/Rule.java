@@ -6,12 +6,7 @@ import java.awt.*;
 public class Rule extends JFrame {
 	
 	public static boolean canPlace(Card top, Card next) {
-	    int a = top.number;
-	    int b = next.number;
-
-	    if (a == 13 && b == 1) return true;
-	    if (a == 1 && b == 13) return true;
-	    return Math.abs(a - b) == 1;
+	    return Card.canPlace(top.ordinal(), next.ordinal());
 	}
 
 	
@@ -0,0 +1,54 @@
+package network_game;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 일관 해시 링 (방 이름 → 백엔드 RoomServer)
+// 샤드마다 가상 노드 VNODES 개를 링에 흩어 두고, 방 이름의 해시에서 시계 방향으로 처음 만나는 샤드를 고른다.
+// 샤드를 하나 더하면 새 샤드 몫의 구간만 옮겨지고 나머지 이름의 배정은 그대로다.
+// (이미 만들어진 방은 게이트웨이가 방 목록으로 위치를 알고 있으므로 옮겨지지 않는다)
+//
+// 불변 객체. 샤드가 바뀌면 새 링을 만들어 통째로 교체한다.
+// 해시는 프로세스와 무관하게 같은 값이 나오도록 직접 계산한다 (String.hashCode 는 분포가 나쁨).
+final class ShardRing<S> {
+
+    static final int VNODES = 128;
+
+    private final TreeMap<Long, S> ring = new TreeMap<>();
+    private final int size;
+
+    // key(shard) = 샤드 주소 등 프로세스 사이에서 같은 문자열
+    ShardRing(Map<String, S> shards) {
+        for (Map.Entry<String, S> e : shards.entrySet())
+            for (int i = 0; i < VNODES; i++)
+                ring.put(hash(e.getKey() + "#" + i), e.getValue());
+        this.size = shards.size();
+    }
+
+    // 샤드가 없으면 null
+    S shardFor(String key) {
+        if (ring.isEmpty()) return null;
+        Map.Entry<Long, S> e = ring.ceilingEntry(hash(key));
+        return (e != null ? e : ring.firstEntry()).getValue();
+    }
+
+    int size() {
+        return size;
+    }
+
+    // FNV-1a 64 + murmur3 fmix64 (짧은 이름도 골고루 퍼지도록)
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53e1a53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,87 @@
+package network_game;
+
+import java.io.*;
+import java.net.Socket;
+
+// 연결당 스레드 1개 방식 (기존 RoomServer 동작)
+// 블로킹으로 수신하고, 받은 줄/프레임은 ClientHandler 로 넘긴다.
+// 실행 스레드는 RoomServer 가 정한다. (플랫폼 스레드 또는 가상 스레드)
+//
+// 송신은 OutboundQueue 에 넣기만 하고, 연결마다 있는 writer 스레드가 소켓에 쓴다.
+// → 느린 클라이언트 하나가 방 전체 브로드캐스트를 막지 못한다.
+class SocketConnection implements Runnable, Connection {
+
+    private final Socket socket;
+    private final RoomServer.ClientHandler handler;
+    private final OutboundQueue<byte[]> outbound = new OutboundQueue<>(this::close);
+
+    private Wire.Reader in;
+    private Thread writer;
+    private volatile boolean binary = false;
+    private volatile boolean closed = false;
+
+    SocketConnection(Socket socket) {
+        this.socket = socket;
+        this.handler = new RoomServer.ClientHandler(this);
+    }
+
+    @Override
+    public void run() {
+        try {
+            in = new Wire.Reader(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+
+            writer = RoomServer.newThread(() -> writeLoop(out));
+            writer.start();
+
+            handler.onOpen();
+
+            while (in.next(handler)) { }
+
+        } catch (IOException e) {
+            // 연결 종료
+        } finally {
+            close();
+            handler.onClose();
+        }
+    }
+
+    // 대기열이 빌 때까지 몰아서 쓰고 한 번만 flush
+    private void writeLoop(OutputStream out) {
+        try {
+            while (!closed) {
+                byte[] msg = outbound.take();
+                do {
+                    out.write(msg);
+                } while ((msg = outbound.poll()) != null);
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            // 연결 종료
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void send(Frame frame) {
+        if (closed) return;
+        outbound.offer(frame.encode(binary), frame.droppable);
+    }
+
+    @Override
+    public void setBinary() {
+        binary = true;
+        in.setBinary(true);
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+
+        try { socket.close(); } catch (Exception ignored) {}
+        if (writer != null) writer.interrupt();
+        outbound.clear();
+    }
+}
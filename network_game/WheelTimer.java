@@ -0,0 +1,218 @@
+package network_game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// 서버 전체가 같이 쓰는 타이머 (hashed wheel)
+// 방마다 스레드를 만들어 sleep 하는 대신, 스레드 1개가 TICK 마다 바퀴 한 칸씩 돌며
+// 만료된 작업을 실행한다. 게임 제한 시간, 채팅 금지 해제, 대기 시간 초과 등에 사용.
+//
+// 실행 작업은 타이머 스레드에서 돌기 때문에 짧아야 한다. (소켓 쓰기는 OutboundQueue 로)
+// 정밀도는 TICK 단위.
+final class WheelTimer {
+
+    static final WheelTimer SHARED = new WheelTimer(100, 512);
+
+    private final long tickMs;
+    private final Bucket[] wheel;
+    private final int mask;
+
+    // 다른 스레드에서 등록 / 취소 → 타이머 스레드가 다음 틱에 반영
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    // ===== 지표 =====
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder scheduledCount = new LongAdder();
+    private final LongAdder firedCount = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+
+    private final long startNs = System.nanoTime();
+    private long tick = 0;
+
+    WheelTimer(long tickMs, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1)
+            throw new IllegalArgumentException("wheelSize must be a power of two: " + wheelSize);
+
+        this.tickMs = tickMs;
+        this.wheel = new Bucket[wheelSize];
+        this.mask = wheelSize - 1;
+        for (int i = 0; i < wheelSize; i++) wheel[i] = new Bucket();
+
+        Thread t = new Thread(this::run, "wheel-timer");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    // delayMs 후에 task 실행
+    Timeout schedule(long delayMs, Runnable task) {
+        long deadline = elapsedMs() + Math.max(0, delayMs);
+        Timeout t = new Timeout(this, task, deadline);
+
+        pending.incrementAndGet();
+        scheduledCount.increment();
+        added.add(t);
+        return t;
+    }
+
+    int pending() {
+        return pending.get();
+    }
+
+    long scheduled() {
+        return scheduledCount.sum();
+    }
+
+    long fired() {
+        return firedCount.sum();
+    }
+
+    long cancelled() {
+        return cancelledCount.sum();
+    }
+
+    private long elapsedMs() {
+        return (System.nanoTime() - startNs) / 1_000_000;
+    }
+
+    // ==========================
+    // 타이머 스레드
+    // ==========================
+    private void run() {
+        while (true) {
+            long next = (tick + 1) * tickMs;
+            long sleep = next - elapsedMs();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+
+            removeCancelled();
+            transferAdded();
+
+            Bucket b = wheel[(int) (tick & mask)];
+            b.expire(elapsedMs());
+            tick++;
+        }
+    }
+
+    private void transferAdded() {
+        Timeout t;
+        while ((t = added.poll()) != null) {
+            if (t.state.get() != Timeout.WAITING) continue;
+
+            long ticks = Math.max(t.deadline / tickMs, tick);  // 이미 지난 건 현재 칸
+            t.rounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(t);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null)
+            if (t.bucket != null) t.bucket.remove(t);
+    }
+
+    // ==========================
+    // 예약 1건
+    // ==========================
+    static final class Timeout {
+
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final WheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        // 타이머 스레드 전용
+        private long rounds;
+        private Bucket bucket;
+        private Timeout prev, next;
+
+        private Timeout(WheelTimer timer, Runnable task, long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        // 아직 실행 전이면 취소하고 true
+        boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) return false;
+
+            timer.pending.decrementAndGet();
+            timer.cancelledCount.increment();
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(WAITING, EXPIRED)) return;
+
+            timer.pending.decrementAndGet();
+            timer.firedCount.increment();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // 바퀴 한 칸 (이중 연결 리스트, 타이머 스레드 전용)
+    private static final class Bucket {
+        private Timeout head, tail;
+
+        void add(Timeout t) {
+            t.bucket = this;
+            if (head == null) {
+                head = tail = t;
+            } else {
+                tail.next = t;
+                t.prev = tail;
+                tail = t;
+            }
+        }
+
+        void remove(Timeout t) {
+            Timeout next = t.next;
+            if (t.prev != null) t.prev.next = next;
+            if (t.next != null) t.next.prev = t.prev;
+            if (t == head) head = next;
+            if (t == tail) tail = t.prev;
+            t.prev = t.next = null;
+            t.bucket = null;
+        }
+
+        void expire(long now) {
+            Timeout t = head;
+            while (t != null) {
+                Timeout next = t.next;
+                if (t.rounds <= 0 && t.deadline <= now) {
+                    remove(t);
+                    t.expire();
+                } else if (t.isCancelled()) {
+                    remove(t);
+                } else if (t.rounds > 0) {
+                    t.rounds--;
+                }
+                t = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package network_game;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+// 바이너리 프로토콜 정의 (ENTER_NAME 단계에서 협상)
+//
+// 클라이언트가 닉네임 줄 끝에 "|BIN1" 을 붙이면, 서버는 닉네임 승인 후
+// 텍스트 줄 "PROTO BIN1" 을 보내고 그 다음부터 양방향 모두 바이너리 프레임을 쓴다.
+// 붙이지 않은 (기존) 클라이언트는 계속 텍스트 줄을 쓴다.
+//
+// 프레임 = [길이 u16][opcode u8][payload...]   (길이 = opcode + payload 바이트 수)
+//   카드 = Card.ordinal() 1바이트, 좌석 = 0~3, L/R = 0/1
+//   전용 opcode 가 없는 메시지는 OP_TEXT 로 기존 텍스트 줄을 그대로 담는다.
+final class Wire {
+
+    static final String BIN_TOKEN = "BIN1";
+    static final String PROTO_BIN = "PROTO " + BIN_TOKEN;
+
+    static final int MAX_FRAME = 0xFFFF;
+
+    // ===== opcode =====
+    static final int OP_TEXT = 0;        // [utf8 줄]
+    static final int OP_PLAY = 1;        // C→S [card][side]
+    static final int OP_CENTER = 2;      // [side][card]  (card 0xFF = NONE)
+    static final int OP_HAND = 3;        // [seat][n][card x n]
+    static final int OP_COUNTS = 4;      // [teammate][enemyL][enemyR][sideL][sideR]
+    static final int OP_GAME_START = 5;  // [내 좌석]
+    static final int OP_GAME_OVER = 6;   // ['A'|'B'|'D'][시간초과 0/1]
+    static final int OP_STATE = 7;       // [side][card][counts x5][winner 0|'A'|'B'][hand...]
+                                         //   hand = [0xFF] 없음
+                                         //        | [HAND_FULL][seq][n][card x n]
+                                         //        | [HAND_DELTA][seq][빠진 card][보충 card|0xFF]
+
+    static final int SIDE_L = 0;
+    static final int SIDE_R = 1;
+    static final int NO_CARD = 0xFF;
+    static final int NO_HAND = 0xFF;
+    static final byte HAND_FULL = 0;
+    static final byte HAND_DELTA = 1;
+
+    private Wire() {}
+
+    static int side(String s) {
+        return "L".equals(s) ? SIDE_L : SIDE_R;
+    }
+
+    static String side(int b) {
+        return b == SIDE_L ? "L" : "R";
+    }
+
+    // ===== 인코딩 =====
+    static byte[] frame(int op, byte... payload) {
+        int len = 1 + payload.length;
+        if (len > MAX_FRAME) throw new IllegalArgumentException("frame too large: " + len);
+
+        byte[] b = new byte[2 + len];
+        b[0] = (byte) (len >>> 8);
+        b[1] = (byte) len;
+        b[2] = (byte) op;
+        System.arraycopy(payload, 0, b, 3, payload.length);
+        return b;
+    }
+
+    static byte[] textFrame(String line) {
+        return frame(OP_TEXT, line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static byte[] textLine(String line) {
+        return (line + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ===== 디코딩 콜백 =====
+    interface Handler {
+        void onLine(String line);
+
+        // buf[0] = opcode, buf[1..len) = payload. buf 는 재사용되므로 보관하지 말 것
+        void onFrame(int op, byte[] buf, int len);
+    }
+
+    // ==========================
+    // 블로킹 스트림 리더 (서버 SocketConnection / 클라이언트 공용)
+    // 텍스트 ↔ 바이너리 전환이 가능하도록 바이트 단위로 직접 읽는다.
+    // ==========================
+    static final class Reader {
+
+        private final InputStream in;
+        private byte[] buf = new byte[256];
+        private volatile boolean binary = false;
+
+        Reader(InputStream in) {
+            this.in = new BufferedInputStream(in);
+        }
+
+        void setBinary(boolean binary) {
+            this.binary = binary;
+        }
+
+        boolean isBinary() {
+            return binary;
+        }
+
+        // 여기서부터는 해석하지 않고 바이트 그대로 넘길 때 (게이트웨이 중계)
+        // 미리 읽어 둔 바이트도 들어 있으므로 이후 next() 와 섞어 쓰지 말 것
+        InputStream stream() {
+            return in;
+        }
+
+        // 메시지 하나를 읽어 handler 로 넘긴다. EOF 면 false
+        boolean next(Handler h) throws IOException {
+            if (binary) {
+                int hi = in.read();
+                int lo = in.read();
+                if (lo < 0) return false;
+
+                int len = (hi << 8) | lo;
+                if (len == 0) return true;
+                ensure(len);
+                readFully(len);
+
+                int op = buf[0] & 0xFF;
+                if (op == OP_TEXT)
+                    h.onLine(new String(buf, 1, len - 1, StandardCharsets.UTF_8));
+                else
+                    h.onFrame(op, buf, len);
+                return true;
+            }
+
+            String line = readLine();
+            if (line == null) return false;
+            h.onLine(line);
+            return true;
+        }
+
+        // 텍스트 줄 하나 ('\n' 기준, '\r' 제거). EOF 면 null
+        String readLine() throws IOException {
+            int n = 0;
+            while (true) {
+                int b = in.read();
+                if (b < 0) {
+                    if (n == 0) return null;
+                    break;
+                }
+                if (b == '\n') break;
+                ensure(n + 1);
+                buf[n++] = (byte) b;
+            }
+            if (n > 0 && buf[n - 1] == '\r') n--;
+            return new String(buf, 0, n, StandardCharsets.UTF_8);
+        }
+
+        private void ensure(int size) throws IOException {
+            if (size > MAX_FRAME + 1) throw new IOException("message too large");
+            if (size > buf.length) {
+                byte[] nb = new byte[Math.max(size, buf.length * 2)];
+                System.arraycopy(buf, 0, nb, 0, buf.length);
+                buf = nb;
+            }
+        }
+
+        private void readFully(int len) throws IOException {
+            int off = 0;
+            while (off < len) {
+                int r = in.read(buf, off, len - off);
+                if (r < 0) throw new EOFException();
+                off += r;
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package network_game;
+
+import java.io.*;
+import java.net.Socket;
+
+// 클라이언트 쪽 서버 연결 (Lobby → Room 으로 그대로 넘겨 쓴다)
+// 텍스트 / 바이너리 어느 쪽으로 협상됐는지 감추고 줄 단위 API 를 제공한다.
+class WireSocket {
+
+    private final Socket socket;
+    private final Wire.Reader in;
+    private final OutputStream out;
+
+    private volatile boolean binary = false;
+
+    WireSocket(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new Wire.Reader(socket.getInputStream());
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    // ===== 송신 =====
+    // 바이너리 모드에서 PLAY 는 전용 프레임, 나머지는 OP_TEXT
+    synchronized void sendLine(String line) throws IOException {
+        if (!binary) {
+            out.write(Wire.textLine(line));
+        } else if (line.startsWith("PLAY ")) {
+            // PLAY 11C L
+            String[] p = line.split(" ");
+            out.write(Wire.frame(Wire.OP_PLAY,
+                    (byte) Card.fromString(p[1]).ordinal(),
+                    (byte) Wire.side(p[2])));
+        } else {
+            out.write(Wire.textFrame(line));
+        }
+        out.flush();
+    }
+
+    // 서버가 PROTO BIN1 을 보낸 뒤 호출
+    void setBinary() {
+        binary = true;
+        in.setBinary(true);
+    }
+
+    boolean isBinary() {
+        return binary;
+    }
+
+    // ===== 수신 =====
+    // 다음 텍스트 메시지 (로비 단계용). EOF 면 null
+    String readLine() throws IOException {
+        final String[] line = new String[1];
+        while (line[0] == null) {
+            boolean more = in.next(new Wire.Handler() {
+                @Override
+                public void onLine(String l) {
+                    line[0] = l;
+                }
+
+                @Override
+                public void onFrame(int op, byte[] buf, int len) {
+                    // 로비 단계에서는 게임 프레임이 오지 않음
+                }
+            });
+            if (!more) return null;
+        }
+        return line[0];
+    }
+
+    // 다음 메시지를 handler 로 (게임방 단계용). EOF 면 false
+    boolean next(Wire.Handler h) throws IOException {
+        return in.next(h);
+    }
+
+    // 같은 서버로 새 연결 (재접속용, 텍스트 모드로 시작)
+    WireSocket reopen() throws IOException {
+        return new WireSocket(new Socket(socket.getInetAddress(), socket.getPort()));
+    }
+
+    void close() {
+        try { socket.close(); } catch (Exception ignored) {}
+    }
+}
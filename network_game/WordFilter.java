@@ -0,0 +1,189 @@
+package network_game;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+// 금칙어 필터 (Aho-Corasick)
+// 단어 목록을 한 번 오토마톤으로 만들어 두고, 메시지를 한 번만 훑어서 찾기 + 가리기를 같이 한다.
+// 단어 수가 늘어도 메시지당 비용은 메시지 길이에만 비례한다.
+//
+// 대소문자 무시 (문자 단위 소문자화 → 가린 위치가 원문과 그대로 맞는다)
+// 만든 뒤에는 읽기 전용이라 여러 스레드가 같이 써도 된다. 목록이 바뀌면 새로 만들어 통째로 교체.
+final class WordFilter {
+
+    static final WordFilter EMPTY = compile(List.of());
+
+    // 노드별 전이: keys 는 정렬, next 는 같은 순서 (이진 탐색)
+    private final char[][] keys;
+    private final int[][] next;
+    private final int[] fail;
+    private final int[] matchLen;   // 이 노드에서 끝나는 가장 긴 단어 길이 (실패 링크 포함, 0 = 없음)
+    private final int words;
+
+    private WordFilter(char[][] keys, int[][] next, int[] fail, int[] matchLen, int words) {
+        this.keys = keys;
+        this.next = next;
+        this.fail = fail;
+        this.matchLen = matchLen;
+        this.words = words;
+    }
+
+    int size() {
+        return words;
+    }
+
+    // 금칙어가 하나라도 있으면 true
+    boolean matches(CharSequence s) {
+        int state = 0;
+        for (int i = 0; i < s.length(); i++) {
+            state = step(state, Character.toLowerCase(s.charAt(i)));
+            if (matchLen[state] > 0) return true;
+        }
+        return false;
+    }
+
+    // 금칙어를 '*' 로 가린 문자열. 하나도 없으면 msg 그대로 (같은 객체)
+    String mask(String msg) {
+        char[] out = null;
+        int maskedTo = -1;   // 여기까지는 이미 가렸음
+        int state = 0;
+
+        for (int i = 0; i < msg.length(); i++) {
+            state = step(state, Character.toLowerCase(msg.charAt(i)));
+            int len = matchLen[state];
+            if (len == 0) continue;
+
+            if (out == null) out = msg.toCharArray();
+            for (int j = Math.max(i - len + 1, maskedTo + 1); j <= i; j++)
+                out[j] = '*';
+            maskedTo = i;
+        }
+        return out == null ? msg : new String(out);
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int k = Arrays.binarySearch(keys[state], c);
+            if (k >= 0) return next[state][k];
+            if (state == 0) return 0;
+            state = fail[state];
+        }
+    }
+
+    // ==========================
+    // 만들기
+    // ==========================
+    static WordFilter compile(Collection<String> words) {
+        Builder b = new Builder();
+        int n = 0;
+        for (String w : words) {
+            String t = w.trim();
+            if (t.isEmpty()) continue;
+            b.add(t);
+            n++;
+        }
+        return b.build(n);
+    }
+
+    // 트라이를 가변 구조로 쌓은 뒤 배열로 굳힌다
+    private static final class Builder {
+        // (노드 << 16 | 문자) → 자식 노드
+        private final HashMap<Long, Integer> edges = new HashMap<>();
+        private final List<Integer> depth = new ArrayList<>();
+        private final List<Boolean> terminal = new ArrayList<>();
+
+        Builder() {
+            newNode(0);
+        }
+
+        private int newNode(int d) {
+            depth.add(d);
+            terminal.add(false);
+            return depth.size() - 1;
+        }
+
+        void add(String word) {
+            int node = 0;
+            for (int i = 0; i < word.length(); i++) {
+                char c = Character.toLowerCase(word.charAt(i));
+                long key = ((long) node << 16) | c;
+                Integer child = edges.get(key);
+                if (child == null) {
+                    child = newNode(i + 1);
+                    edges.put(key, child);
+                }
+                node = child;
+            }
+            terminal.set(node, true);
+        }
+
+        WordFilter build(int words) {
+            int n = depth.size();
+
+            // 노드별 전이를 문자 순으로 정렬
+            long[] sorted = new long[edges.size()];
+            int e = 0;
+            for (long key : edges.keySet()) sorted[e++] = key;
+            Arrays.sort(sorted);
+
+            int[] count = new int[n];
+            for (long key : sorted) count[(int) (key >>> 16)]++;
+
+            char[][] k = new char[n][];
+            int[][] nx = new int[n][];
+            for (int i = 0; i < n; i++) {
+                k[i] = new char[count[i]];
+                nx[i] = new int[count[i]];
+            }
+            int[] fill = new int[n];
+            for (long key : sorted) {
+                int node = (int) (key >>> 16);
+                int j = fill[node]++;
+                k[node][j] = (char) key;
+                nx[node][j] = edges.get(key);
+            }
+
+            // 실패 링크: 너비 우선
+            int[] fail = new int[n];
+            int[] matchLen = new int[n];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int child : nx[0]) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+            for (int i = 0; i < n; i++)
+                if (terminal.get(i)) matchLen[i] = depth.get(i);
+
+            while (!queue.isEmpty()) {
+                int node = queue.poll();
+                matchLen[node] = Math.max(matchLen[node], matchLen[fail[node]]);
+
+                for (int j = 0; j < k[node].length; j++) {
+                    char c = k[node][j];
+                    int child = nx[node][j];
+
+                    int f = fail[node];
+                    while (true) {
+                        int x = Arrays.binarySearch(k[f], c);
+                        if (x >= 0) {
+                            fail[child] = nx[f][x];
+                            break;
+                        }
+                        if (f == 0) {
+                            fail[child] = 0;
+                            break;
+                        }
+                        f = fail[f];
+                    }
+                    queue.add(child);
+                }
+            }
+
+            return new WordFilter(k, nx, fail, matchLen, words);
+        }
+    }
+}